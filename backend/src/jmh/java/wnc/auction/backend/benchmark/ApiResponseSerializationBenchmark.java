@@ -0,0 +1,81 @@
+package wnc.auction.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wnc.auction.backend.config.JacksonConfig;
+import wnc.auction.backend.dto.model.ProductListDto;
+import wnc.auction.backend.dto.response.ApiResponse;
+import wnc.auction.backend.dto.response.PageResponse;
+import wnc.auction.backend.mapper.ProductMapper;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.UserRole;
+
+/**
+ * Serialization of a product listing page, the body of the public search and category endpoints, with the
+ * application's {@link ObjectMapper} configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"12", "50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter typedWriter;
+    private ApiResponse<PageResponse<ProductListDto>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        typedWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, PageResponse.class));
+
+        User seller = Fixtures.user(1L, UserRole.SELLER);
+        List<ProductListDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User bidder = Fixtures.user(100L + i, UserRole.BIDDER);
+            content.add(ProductMapper.toListDto(Fixtures.product(i + 1, seller, bidder, 3)));
+        }
+
+        response = ApiResponse.success(PageResponse.<ProductListDto>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(1_000)
+                .totalPages(1_000 / pageSize + 1)
+                .last(false)
+                .build());
+    }
+
+    // What the message converter does: serializer looked up from the runtime type
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Pre-resolved writer for the declared type, as a baseline for converter overhead
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return typedWriter.writeValueAsBytes(response);
+    }
+}
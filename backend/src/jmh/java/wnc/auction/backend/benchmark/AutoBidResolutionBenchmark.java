@@ -0,0 +1,266 @@
+package wnc.auction.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.cache.BlockedBidderIndex;
+import wnc.auction.backend.cache.IdempotencyCache;
+import wnc.auction.backend.cache.UserProfileCache;
+import wnc.auction.backend.config.JacksonConfig;
+import wnc.auction.backend.dto.model.BidDto;
+import wnc.auction.backend.dto.model.BidHistoryDto;
+import wnc.auction.backend.dto.request.PlaceBidRequest;
+import wnc.auction.backend.engine.AutoBidBook;
+import wnc.auction.backend.engine.AutoBidMandateStore;
+import wnc.auction.backend.engine.BidLeaderboard;
+import wnc.auction.backend.engine.BidSequencer;
+import wnc.auction.backend.model.AutoBidMandate;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.UserRole;
+import wnc.auction.backend.outbox.BidEmailCoalescer;
+import wnc.auction.backend.outbox.OutboxPublisher;
+import wnc.auction.backend.outbox.OutboxRelay;
+import wnc.auction.backend.realtime.LeaderboardUpdateCoalescer;
+import wnc.auction.backend.realtime.SseAdmission;
+import wnc.auction.backend.realtime.SseBroadcaster;
+import wnc.auction.backend.realtime.SseConnectionFactory;
+import wnc.auction.backend.realtime.SseHeartbeatWheel;
+import wnc.auction.backend.realtime.SseReplayBuffer;
+import wnc.auction.backend.realtime.SseSessionControl;
+import wnc.auction.backend.realtime.WatcherPresence;
+import wnc.auction.backend.security.UserPrincipal;
+import wnc.auction.backend.service.BidService;
+import wnc.auction.backend.service.NotificationService;
+import wnc.auction.backend.service.SystemConfigService;
+
+/**
+ * {@link BidService#placeBid} against a product holding {@code mandates} auto-bid mandates, through the real
+ * sequencer lane, mandate store and outbox publisher. Repositories are in-memory fakes and Redis is not
+ * touched, so the numbers cover the engine itself: validation, money arithmetic, book lookup and the bids
+ * and outbox rows written per resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutoBidResolutionBenchmark {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final long SELLER_ID = 1L;
+    private static final long FIRST_MANDATE_USER_ID = 1_000L;
+    private static final long FIRST_MANUAL_USER_ID = 100_000L;
+    private static final int MANUAL_BIDDERS = 64;
+
+    @Param({"10", "1000"})
+    public int mandates;
+
+    private InMemoryRepositories repositories;
+    private BidSequencer bidSequencer;
+    private BidService bidService;
+    private Product product;
+    private AutoBidBook book;
+    private int nextManualBidder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        repositories = new InMemoryRepositories();
+
+        User seller = Fixtures.user(SELLER_ID, UserRole.SELLER);
+        repositories.users.put(SELLER_ID, seller);
+        product = Fixtures.product(PRODUCT_ID, seller, null, 1);
+        repositories.products.put(PRODUCT_ID, product);
+
+        // Mandate maxima are far above anything a run can reach, so every manual bid is answered by an auto-bid
+        for (int i = 0; i < mandates; i++) {
+            User user = Fixtures.user(FIRST_MANDATE_USER_ID + i, UserRole.BIDDER);
+            repositories.users.put(user.getId(), user);
+            repositories.addMandate(AutoBidMandate.builder()
+                    .product(product)
+                    .user(user)
+                    .maxAmount(new BigDecimal("1000000000.00").add(BigDecimal.valueOf(i)))
+                    .maxSetAt(LocalDateTime.now().minusMinutes(mandates - i))
+                    .build());
+        }
+        for (int i = 0; i < MANUAL_BIDDERS; i++) {
+            User user = Fixtures.user(FIRST_MANUAL_USER_ID + i, UserRole.BIDDER);
+            repositories.users.put(user.getId(), user);
+        }
+
+        bidSequencer = new BidSequencer(meterRegistry, 16, 1000, 30);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        BlockedBidderIndex blockedBidderIndex =
+                new BlockedBidderIndex(repositories.blockedBidderRepository(), null, null, 300, 50_000);
+        // Manual bids neither change nor evict mandates, so no invalidation is ever published
+        AutoBidMandateStore mandateStore = new AutoBidMandateStore(
+                repositories.autoBidMandateRepository(),
+                repositories.bidRepository(),
+                blockedBidderIndex,
+                null,
+                null,
+                Clock.systemDefaultZone());
+        BidLeaderboard leaderboard = new DetachedLeaderboard(blockedBidderIndex, bidSequencer);
+        OutboxPublisher outboxPublisher = new OutboxPublisher(
+                repositories.outboxEventRepository(), objectMapper, new IdleOutboxRelay(meterRegistry));
+
+        bidService = new BidService(
+                repositories.bidRepository(),
+                repositories.productRepository(),
+                repositories.userRepository(),
+                repositories.blockedBidderRepository(),
+                blockedBidderIndex,
+                new NotificationService(
+                        leaderboard,
+                        new LocalBroadcaster(objectMapper),
+                        new LeaderboardUpdateCoalescer(meterRegistry, 0), // every bid is broadcast
+                        new SseConnectionFactory(
+                                meterRegistry, new SseHeartbeatWheel(30, 1000), new SseAdmission(8, 32, 10_000), 64, 30),
+                        new SseReplayBuffer(32, 300, 50_000),
+                        new SseSessionControl(null, null),
+                        null, // NotificationInboxWriter: bids do not produce inbox notifications
+                        new LocalPresence(),
+                        Clock.systemDefaultZone()),
+                null, // TransactionService: only reached by buy-now
+                new SystemConfigService(repositories.systemConfigRepository()),
+                bidSequencer,
+                mandateStore,
+                leaderboard,
+                outboxPublisher,
+                new BidEmailCoalescer(
+                        repositories.outboxEventRepository(),
+                        new UserProfileCache(repositories.userRepository(), null, null, 300, 10_000),
+                        transactionTemplate,
+                        objectMapper,
+                        meterRegistry,
+                        30),
+                meterRegistry,
+                new IdempotencyCache(null, objectMapper, meterRegistry, 24, 60, 10_000),
+                transactionTemplate,
+                Clock.systemDefaultZone());
+
+        // Standalone book with the same mandates for the lookup-only benchmark
+        book = new AutoBidBook();
+        for (int i = 0; i < mandates; i++) {
+            book.put(FIRST_MANDATE_USER_ID + i, new BigDecimal("1000000000.00").add(BigDecimal.valueOf(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bidSequencer.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    // Manual bid at the minimum increment, answered by the strongest mandate (two or three bids written)
+    @Benchmark
+    public BidDto manualBidAgainstMandates() {
+        long bidderId = FIRST_MANUAL_USER_ID + (nextManualBidder++ % MANUAL_BIDDERS);
+        authenticate(bidderId);
+
+        PlaceBidRequest request = new PlaceBidRequest();
+        request.setProductId(PRODUCT_ID);
+        request.setAmount(product.getCurrentPrice().add(product.getStepPrice()));
+        return bidService.placeBid(request, null);
+    }
+
+    // Strongest-competitor lookup alone, excluding the current leader
+    @Benchmark
+    public AutoBidBook.Mandate strongestCompetitor() {
+        return book.strongestExcluding(FIRST_MANDATE_USER_ID + mandates - 1).orElseThrow();
+    }
+
+    private static void authenticate(long userId) {
+        UserPrincipal principal =
+                UserPrincipal.builder().id(userId).role(UserRole.BIDDER.name()).build();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    // Leaderboard without Redis: committed bids are dropped, reads are empty
+    private static final class DetachedLeaderboard extends BidLeaderboard {
+
+        DetachedLeaderboard(BlockedBidderIndex blockedBidderIndex, BidSequencer bidSequencer) {
+            super(null, null, null, blockedBidderIndex, bidSequencer, 168);
+        }
+
+        @Override
+        public void record(Long productId, Bid bid) {}
+
+        @Override
+        public List<BidHistoryDto> top(Long productId, int offset, int count) {
+            return List.of();
+        }
+    }
+
+    // Relay that never drains: delivery is measured separately, only the publish cost belongs here
+    private static final class IdleOutboxRelay extends OutboxRelay {
+
+        IdleOutboxRelay(MeterRegistry meterRegistry) {
+            super(null, null, null, null, meterRegistry, 100, 8, 2000, 600_000, 300, 7);
+        }
+
+        @Override
+        public void wakeUp() {}
+    }
+
+    // Single node without Redis: events are serialized but reach no emitters
+    private static final class LocalBroadcaster extends SseBroadcaster {
+
+        private final ObjectMapper objectMapper;
+
+        LocalBroadcaster(ObjectMapper objectMapper) {
+            super(null, null, objectMapper);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void publish(Scope scope, long key, String event, Object data) {
+            try {
+                objectMapper.writeValueAsString(data);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Presence without Redis: nobody watches the benchmarked products
+    private static final class LocalPresence extends WatcherPresence {
+
+        LocalPresence() {
+            super(null, 5000);
+        }
+
+        @Override
+        public long watchers(long productId) {
+            return 0;
+        }
+    }
+}
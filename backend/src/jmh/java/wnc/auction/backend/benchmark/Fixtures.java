@@ -0,0 +1,79 @@
+package wnc.auction.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.model.Category;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.model.enumeration.UserRole;
+
+/**
+ * Entity builders shared by the benchmarks. Collections and counters are set explicitly because the Lombok
+ * builders leave non-defaulted fields null.
+ */
+final class Fixtures {
+
+    static final Category CATEGORY =
+            Category.builder().id(1L).name("Electronics").build();
+
+    private Fixtures() {}
+
+    static User user(long id, UserRole role) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .fullName("Bench User " + id)
+                .role(role)
+                .isActive(true)
+                .emailVerified(true)
+                .positiveRatings(10)
+                .negativeRatings(0)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static Product product(long id, User seller, User currentBidder, int imageCount) {
+        List<String> images = new ArrayList<>();
+        for (int i = 0; i < imageCount; i++) {
+            images.add("https://cdn.example.com/products/" + id + "/" + i + ".webp");
+        }
+
+        return Product.builder()
+                .id(id)
+                .name("Vintage mechanical keyboard #" + id)
+                .description("Cherry MX switches, original keycaps, fully tested. Ships in the original box.")
+                .startingPrice(new BigDecimal("100.00"))
+                .currentPrice(new BigDecimal("100.00"))
+                .stepPrice(new BigDecimal("1.00"))
+                .buyNowPrice(null)
+                .category(CATEGORY)
+                .seller(seller)
+                .currentBidder(currentBidder)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(2))
+                .autoExtend(false)
+                .allowUnratedBidders(true)
+                .status(ProductStatus.ACTIVE)
+                .bidCount(0)
+                .images(images)
+                .bids(new ArrayList<>())
+                .descriptionHistory(new ArrayList<>())
+                .createdAt(LocalDateTime.now().minusMinutes(30))
+                .build();
+    }
+
+    static Bid bid(long id, Product product, User bidder, BigDecimal amount) {
+        return Bid.builder()
+                .id(id)
+                .product(product)
+                .user(bidder)
+                .amount(amount)
+                .isAutoBid(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package wnc.auction.backend.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import wnc.auction.backend.model.AutoBidMandate;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.repository.AutoBidMandateRepository;
+import wnc.auction.backend.repository.BidRepository;
+import wnc.auction.backend.repository.BlockedBidderRepository;
+import wnc.auction.backend.repository.OutboxEventRepository;
+import wnc.auction.backend.repository.ProductRepository;
+import wnc.auction.backend.repository.SystemConfigRepository;
+import wnc.auction.backend.repository.UserRepository;
+
+/**
+ * Map-backed fakes of the Spring Data repositories used on the bid path.
+ *
+ * <p>Only the methods the benchmarks reach are implemented; anything else throws, so a new repository call on
+ * the hot path shows up immediately instead of silently measuring nothing. Saved bids and outbox events are
+ * counted but not retained, which keeps the heap flat over long runs.
+ */
+final class InMemoryRepositories {
+
+    final Map<Long, User> users = new ConcurrentHashMap<>();
+    final Map<Long, Product> products = new ConcurrentHashMap<>();
+    final Map<String, AutoBidMandate> mandates = new ConcurrentHashMap<>();
+    final AtomicLong savedBids = new AtomicLong();
+    final AtomicLong savedOutboxEvents = new AtomicLong();
+
+    UserRepository userRepository() {
+        return fake(UserRepository.class, Map.of("findById", args -> Optional.ofNullable(users.get((Long) args[0]))));
+    }
+
+    ProductRepository productRepository() {
+        return fake(
+                ProductRepository.class,
+                Map.of(
+                        "findById", args -> Optional.ofNullable(products.get((Long) args[0])),
+                        "findByIdForUpdate", args -> Optional.ofNullable(products.get((Long) args[0])),
+                        "save", args -> {
+                            Product product = (Product) args[0];
+                            products.put(product.getId(), product);
+                            return product;
+                        }));
+    }
+
+    BidRepository bidRepository() {
+        return fake(
+                BidRepository.class,
+                Map.of(
+                        "save", args -> {
+                            Bid bid = (Bid) args[0];
+                            bid.setId(savedBids.incrementAndGet());
+                            bid.setCreatedAt(LocalDateTime.now());
+                            return bid;
+                        },
+                        "findAutoBidsByProductId", args -> List.of()));
+    }
+
+    AutoBidMandateRepository autoBidMandateRepository() {
+        return fake(
+                AutoBidMandateRepository.class,
+                Map.of(
+                        "findByProductId",
+                        args -> mandates.values().stream()
+                                .filter(m -> m.getProduct().getId().equals(args[0]))
+                                .toList(),
+                        "findByProductIdAndUserId",
+                        args -> Optional.ofNullable(mandates.get(mandateKey((Long) args[0], (Long) args[1]))),
+                        "save",
+                        args -> {
+                            AutoBidMandate mandate = (AutoBidMandate) args[0];
+                            mandates.put(
+                                    mandateKey(
+                                            mandate.getProduct().getId(),
+                                            mandate.getUser().getId()),
+                                    mandate);
+                            return mandate;
+                        },
+                        "deleteByProductIdAndUserId",
+                        args -> mandates.remove(mandateKey((Long) args[0], (Long) args[1]))));
+    }
+
+    BlockedBidderRepository blockedBidderRepository() {
+        return fake(BlockedBidderRepository.class, Map.of("findBidderIdsByProductId", args -> List.of()));
+    }
+
+    OutboxEventRepository outboxEventRepository() {
+        return fake(
+                OutboxEventRepository.class,
+                Map.of(
+                        "existsByDedupKey",
+                        args -> false,
+                        "findPendingByCoalesceKey",
+                        args -> List.of(),
+                        "save",
+                        args -> {
+                            savedOutboxEvents.incrementAndGet();
+                            return (OutboxEvent) args[0];
+                        }));
+    }
+
+    SystemConfigRepository systemConfigRepository() {
+        return fake(SystemConfigRepository.class, Map.of("findByKey", args -> Optional.empty()));
+    }
+
+    void addMandate(AutoBidMandate mandate) {
+        mandates.put(mandateKey(mandate.getProduct().getId(), mandate.getUser().getId()), mandate);
+    }
+
+    private static String mandateKey(Long productId, Long userId) {
+        return productId + ":" + userId;
+    }
+
+    private static <R> R fake(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation != null) {
+                return implementation.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default ->
+                    throw new UnsupportedOperationException(
+                            type.getSimpleName() + "." + method.getName() + " is not faked");
+            };
+        }));
+    }
+}
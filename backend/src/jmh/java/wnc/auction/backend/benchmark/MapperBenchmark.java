@@ -0,0 +1,65 @@
+package wnc.auction.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wnc.auction.backend.dto.model.BidDto;
+import wnc.auction.backend.dto.model.BidHistoryDto;
+import wnc.auction.backend.dto.model.ProductDto;
+import wnc.auction.backend.dto.model.ProductListDto;
+import wnc.auction.backend.mapper.BidMapper;
+import wnc.auction.backend.mapper.ProductMapper;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.enumeration.UserRole;
+
+/**
+ * Entity to DTO mapping for the objects returned on every listing and bid-history request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Product product;
+    private Bid bid;
+
+    @Setup
+    public void setUp() {
+        product = Fixtures.product(
+                1L, Fixtures.user(1L, UserRole.SELLER), Fixtures.user(2L, UserRole.BIDDER), 5);
+        bid = Fixtures.bid(1L, product, product.getCurrentBidder(), new BigDecimal("125.00"));
+    }
+
+    @Benchmark
+    public BidDto bidToDto() {
+        return BidMapper.toDto(bid);
+    }
+
+    @Benchmark
+    public BidHistoryDto bidToHistoryDto() {
+        return BidMapper.toHistoryDto(bid);
+    }
+
+    @Benchmark
+    public ProductListDto productToListDto() {
+        return ProductMapper.toListDto(product);
+    }
+
+    @Benchmark
+    public ProductDto productToDto() {
+        return ProductMapper.toDto(product, 2L, false, 1);
+    }
+}
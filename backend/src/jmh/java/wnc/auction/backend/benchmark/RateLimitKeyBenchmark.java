@@ -0,0 +1,100 @@
+package wnc.auction.backend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import wnc.auction.backend.config.RateLimitInterceptor;
+import wnc.auction.backend.controller.RateLimitDemoController;
+import wnc.auction.backend.service.RateLimitService;
+
+/**
+ * {@link RateLimitInterceptor#preHandle} with the Redis-backed {@link RateLimitService} replaced by an
+ * always-allow fake, leaving annotation lookup, key building (principal or forwarded client IP) and the
+ * response headers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitKeyBenchmark {
+
+    @Param({"true", "false"})
+    public boolean authenticated;
+
+    private RateLimitInterceptor interceptor;
+    private KeyRecordingRateLimitService rateLimitService;
+    private HandlerMethod handler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        rateLimitService = new KeyRecordingRateLimitService();
+        interceptor = new RateLimitInterceptor(rateLimitService);
+        handler = new HandlerMethod(
+                new RateLimitDemoController(rateLimitService), RateLimitDemoController.class.getMethod("strictLimit"));
+
+        request = new MockHttpServletRequest("GET", "/api/demo/rate-limit/strict");
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.12, 10.0.0.1");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+
+        if (authenticated) {
+            SecurityContextHolder.getContext()
+                    .setAuthentication(
+                            new UsernamePasswordAuthenticationToken("bidder@example.com", null, List.of()));
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String preHandle() throws Exception {
+        interceptor.preHandle(request, response, handler);
+        return rateLimitService.lastKey;
+    }
+
+    private static final class KeyRecordingRateLimitService extends RateLimitService {
+
+        private String lastKey;
+
+        KeyRecordingRateLimitService() {
+            super(null);
+        }
+
+        @Override
+        public boolean isAllowed(String key, int limit, int windowSeconds) {
+            lastKey = key;
+            return true;
+        }
+
+        @Override
+        public long getRemainingRequests(String key, int limit, int windowSeconds) {
+            return limit - 1;
+        }
+    }
+}
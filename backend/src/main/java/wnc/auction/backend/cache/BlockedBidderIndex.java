@@ -0,0 +1,177 @@
+package wnc.auction.backend.cache;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.repository.BlockedBidderRepository;
+
+/**
+ * Cached set of blocked bidder IDs per product, so eligibility checks and ranking filters do not query the
+ * {@code blocked_bidders} table.
+ *
+ * <p>Each set is an immutable sorted {@code long[]} (binary-search lookups, no boxing). Sets are loaded on first
+ * use, expire after {@code ttl-seconds} as a safety net, and are dropped on every node via Redis pub/sub when a
+ * bidder is blocked. A set loaded while a block was being committed is returned but not cached: every eviction
+ * bumps a generation, and a load only caches its result if the generation did not move while it ran.
+ */
+@Component
+@Slf4j
+public class BlockedBidderIndex {
+
+    private static final String INVALIDATION_CHANNEL = "blocked-bidders:invalidate";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BlockedBidderRepository blockedBidderRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlMillis;
+    private final int maxProducts;
+
+    private final Map<Long, BlockedSet> sets = new ConcurrentHashMap<>();
+
+    // Eviction count per stripe of product IDs; products sharing a stripe only cost each other a cached load
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public BlockedBidderIndex(
+            BlockedBidderRepository blockedBidderRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.auction.blocked-bidders.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.auction.blocked-bidders.max-products:50000}") int maxProducts) {
+        this.blockedBidderRepository = blockedBidderRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxProducts = maxProducts;
+    }
+
+    /**
+     * Immutable set of blocked bidder IDs for one product.
+     */
+    public static final class BlockedSet {
+
+        private static final BlockedSet EMPTY = new BlockedSet(new long[0], Long.MAX_VALUE);
+
+        private final long[] userIds;
+        private final long loadedAt;
+
+        private BlockedSet(long[] sortedUserIds, long loadedAt) {
+            this.userIds = sortedUserIds;
+            this.loadedAt = loadedAt;
+        }
+
+        public boolean contains(long userId) {
+            return userIds.length > 0 && Arrays.binarySearch(userIds, userId) >= 0;
+        }
+
+        public boolean isEmpty() {
+            return userIds.length == 0;
+        }
+
+        public int size() {
+            return userIds.length;
+        }
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(Long.valueOf(new String(message.getBody()))),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public BlockedSet get(Long productId) {
+        if (productId == null) {
+            return BlockedSet.EMPTY;
+        }
+
+        BlockedSet set = sets.get(productId);
+        if (set == null || System.currentTimeMillis() - set.loadedAt > ttlMillis) {
+            int stripe = stripe(productId);
+            long generation = generations.get(stripe);
+            BlockedSet loaded = load(productId);
+            trimIfFull();
+            // Runs under the key's lock, like the removal in evictLocal, so an eviction after the check still wins
+            sets.compute(productId, (id, current) -> generations.get(stripe) == generation ? loaded : current);
+            set = loaded;
+        }
+        return set;
+    }
+
+    public boolean isBlocked(Long productId, Long userId) {
+        return userId != null && get(productId).contains(userId);
+    }
+
+    /**
+     * Call in the transaction that inserts a block. The local set is dropped immediately (so the rest of the
+     * transaction sees the new row) and, once the transaction completes, on every node.
+     */
+    public void invalidate(Long productId) {
+        evictLocal(productId);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(productId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictLocal(productId);
+                if (status == STATUS_COMMITTED) {
+                    publish(productId);
+                }
+            }
+        });
+    }
+
+    private BlockedSet load(Long productId) {
+        List<Long> userIds = blockedBidderRepository.findBidderIdsByProductId(productId);
+        long[] sorted = userIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new BlockedSet(sorted, System.currentTimeMillis());
+    }
+
+    private void evictLocal(Long productId) {
+        generations.incrementAndGet(stripe(productId));
+        sets.remove(productId);
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), GENERATION_STRIPES);
+    }
+
+    private void publish(Long productId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, productId.toString());
+        } catch (DataAccessException e) {
+            // Other nodes pick the change up when their copy expires
+            log.warn("Failed to broadcast blocked-bidder invalidation for product {}", productId, e);
+        }
+    }
+
+    // Crude bound: drop an arbitrary tenth of the sets, they reload on demand
+    private void trimIfFull() {
+        if (sets.size() < maxProducts) {
+            return;
+        }
+        int toRemove = Math.max(1, maxProducts / 10);
+        Iterator<Long> iterator = sets.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
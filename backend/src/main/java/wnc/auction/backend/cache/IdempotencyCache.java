@@ -0,0 +1,235 @@
+package wnc.auction.backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.exception.BadRequestException;
+import wnc.auction.backend.exception.ConflictException;
+import wnc.auction.backend.exception.OutcomeUnknownException;
+import wnc.auction.backend.utils.Constants;
+
+/**
+ * Replays the stored result of a request that carries an already-seen {@code Idempotency-Key}.
+ *
+ * <p>Results are kept in a bounded in-process LRU (L1) in front of Redis (L2), both with the same TTL, so a
+ * retried request is answered without reaching the database. While the first request is still running its key
+ * holds an in-flight marker and concurrent duplicates are rejected with 409. A failed request clears the key so
+ * it can be retried; one that timed out while its work kept running holds the marker until that work ends and
+ * then stores its result. Keys are scoped per endpoint and user.
+ */
+@Component
+@Slf4j
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_FLIGHT = "__in_flight__";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTtl;
+    private final Map<String, LocalEntry> local;
+    private final Set<String> localInFlight = ConcurrentHashMap.newKeySet();
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    private record LocalEntry(String json, long expiresAtMillis) {}
+
+    public IdempotencyCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.in-flight-seconds:60}") long inFlightSeconds,
+            @Value("${app.idempotency.local-max-entries:10000}") int localMaxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inFlightTtl = Duration.ofSeconds(inFlightSeconds);
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > localMaxEntries;
+            }
+        };
+
+        this.l1Hits = lookups(meterRegistry, "l1");
+        this.l2Hits = lookups(meterRegistry, "l2");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    /**
+     * Run the action once per (scope, user, key) and return its result, or the stored result of the first run.
+     * A null or blank key disables deduplication.
+     */
+    public <T> T execute(String scope, Long userId, String idempotencyKey, Class<T> type, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(Constants.ErrorCode.IDEMPOTENCY_KEY_INVALID);
+        }
+
+        String key = KEY_PREFIX + scope + ":" + userId + ":" + idempotencyKey;
+
+        String cached = getLocal(key);
+        if (cached != null) {
+            l1Hits.increment();
+            return read(cached, type);
+        }
+
+        if (!localInFlight.add(key)) {
+            throw new ConflictException(Constants.ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+        try {
+            boolean claimed = claimRemote(key);
+            if (!claimed) {
+                String stored = getRemote(key);
+                if (stored == null || IN_FLIGHT.equals(stored)) {
+                    throw new ConflictException(Constants.ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+                }
+                l2Hits.increment();
+                putLocal(key, stored);
+                return read(stored, type);
+            }
+
+            misses.increment();
+            T result;
+            try {
+                result = action.get();
+            } catch (OutcomeUnknownException e) {
+                settleWhenDone(key, e.outcome());
+                throw e;
+            } catch (RuntimeException e) {
+                releaseRemote(key);
+                throw e;
+            }
+
+            String json = write(result);
+            putLocal(key, json);
+            storeRemote(key, json);
+            return result;
+        } finally {
+            localInFlight.remove(key);
+        }
+    }
+
+    /**
+     * The action gave up waiting while its work kept running. The key must not expire into "absent" before that
+     * work ends, or a retry would run it a second time: the marker is kept for as long as a result would be, and
+     * replaced by the result (or released, if the work failed) once the work ends.
+     */
+    private void settleWhenDone(String key, CompletableFuture<?> outcome) {
+        holdRemote(key);
+        // Registered after the hold, so even an outcome that is already there cannot be overwritten by it
+        outcome.whenComplete((result, error) -> {
+            if (error != null) {
+                releaseRemote(key);
+                return;
+            }
+            String json = write(result);
+            putLocal(key, json);
+            storeRemote(key, json);
+        });
+    }
+
+    // Redis unavailable: fall back to local-only deduplication
+    private boolean claimRemote(String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, IN_FLIGHT, inFlightTtl));
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable, deduplicating locally only", e);
+            return true;
+        }
+    }
+
+    private String getRemote(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable", e);
+            return null;
+        }
+    }
+
+    private void storeRemote(String key, String json) {
+        try {
+            redisTemplate.opsForValue().set(key, json, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to store idempotent result for {}", key, e);
+        }
+    }
+
+    private void holdRemote(String key) {
+        try {
+            redisTemplate.expire(key, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to extend idempotency key {}", key, e);
+        }
+    }
+
+    private void releaseRemote(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release idempotency key {}", key, e);
+        }
+    }
+
+    private synchronized String getLocal(String key) {
+        LocalEntry entry = local.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() < System.currentTimeMillis()) {
+            local.remove(key);
+            return null;
+        }
+        return entry.json();
+    }
+
+    private synchronized void putLocal(String key, String json) {
+        local.put(key, new LocalEntry(json, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt idempotent result", e);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotent result is not serializable", e);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auction.idempotency.lookups")
+                .description("Idempotency-Key lookups by where the result was found")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,147 @@
+package wnc.auction.backend.cache;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.repository.projection.UserProfile;
+
+/**
+ * Read-through cache of {@link UserProfile}s, so authentication, locale and email lookups do not load the user
+ * entity by id several times per request.
+ *
+ * <p>Profiles are loaded on first use with a single projection query, expire after {@code ttl-seconds} as a
+ * safety net, and are dropped on every node via Redis pub/sub when a user's profile, language, role, ratings or
+ * status change. Unknown users are not cached. Since authorities are built from these profiles, a profile loaded
+ * while a change was being committed is returned but not cached: every eviction bumps a generation, and a load
+ * only caches its result if the generation did not move while it ran.
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private static final String INVALIDATION_CHANNEL = "user-profiles:invalidate";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<Long, Entry> profiles = new ConcurrentHashMap<>();
+
+    // Eviction count per stripe of user IDs; users sharing a stripe only cost each other a cached load
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private record Entry(UserProfile profile, long loadedAt) {}
+
+    public UserProfileCache(
+            UserRepository userRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.cache.user-profiles.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.cache.user-profiles.max-entries:100000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(Long.valueOf(new String(message.getBody()))),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public Optional<UserProfile> get(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        Entry entry = profiles.get(userId);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt() > ttlMillis) {
+            int stripe = stripe(userId);
+            long generation = generations.get(stripe);
+            Optional<UserProfile> loaded = userRepository.findProfileById(userId);
+            if (loaded.isEmpty()) {
+                profiles.remove(userId);
+                return loaded;
+            }
+            Entry fresh = new Entry(loaded.get(), System.currentTimeMillis());
+            trimIfFull();
+            // Runs under the key's lock, like the removal in evictLocal, so an eviction after the check still wins
+            profiles.compute(userId, (id, current) -> generations.get(stripe) == generation ? fresh : current);
+            entry = fresh;
+        }
+        return Optional.of(entry.profile());
+    }
+
+    /**
+     * Call in the transaction that changes the user. The local profile is dropped immediately and, once the
+     * transaction completes, on every node.
+     */
+    public void invalidate(Long userId) {
+        evictLocal(userId);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictLocal(userId);
+                if (status == STATUS_COMMITTED) {
+                    publish(userId);
+                }
+            }
+        });
+    }
+
+    private void evictLocal(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        profiles.remove(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    private void publish(Long userId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (DataAccessException e) {
+            // Other nodes pick the change up when their copy expires
+            log.warn("Failed to broadcast user profile invalidation for user {}", userId, e);
+        }
+    }
+
+    // Crude bound: drop an arbitrary tenth of the profiles, they reload on demand
+    private void trimIfFull() {
+        if (profiles.size() < maxEntries) {
+            return;
+        }
+        int toRemove = Math.max(1, maxEntries / 10);
+        Iterator<Long> iterator = profiles.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package wnc.auction.backend.config;
 
+import java.time.Clock;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -11,4 +12,10 @@ public class ApplicationConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    // Time source for auction deadlines (bid cut-off, auto-extend, closing); replaceable in simulations
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -1,6 +1,8 @@
 package wnc.auction.backend.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -20,4 +22,33 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Outbox delivery workers; when saturated the dispatcher delivers itself, which throttles claiming
+    @Bean(name = "outboxExecutor")
+    public ThreadPoolTaskExecutor outboxExecutor(
+            @Value("${app.outbox.workers:4}") int workers, @Value("${app.outbox.batch-size:100}") int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("outbox-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Mail workers, each sending one chunk of emails over its own SMTP connection
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(
+            @Value("${app.mail.outbox.workers:2}") int workers,
+            @Value("${app.mail.outbox.batch-size:100}") int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,57 @@
+package wnc.auction.backend.config;
+
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+import wnc.auction.backend.realtime.LeaderboardSocketEndpoint;
+
+/**
+ * Registers the WebSocket endpoints with the container's standard {@link ServerContainer}. Registration waits
+ * until all singletons exist, as the container is installed after the application's own initializers run.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class WebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+
+    private final LeaderboardSocketEndpoint leaderboardSocketEndpoint;
+
+    private ServletContext servletContext;
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ServerContainer container = servletContext == null
+                ? null
+                : (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            // Mock servlet environment, e.g. in tests
+            log.info("No WebSocket container available, leaderboard sockets are disabled");
+            return;
+        }
+
+        try {
+            container.addEndpoint(
+                    ServerEndpointConfig.Builder.create(LeaderboardSocketEndpoint.class, LeaderboardSocketEndpoint.PATH)
+                            .configurator(new ServerEndpointConfig.Configurator() {
+                                @Override
+                                public <T> T getEndpointInstance(Class<T> endpointClass) {
+                                    return endpointClass.cast(leaderboardSocketEndpoint);
+                                }
+                            })
+                            .build());
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Failed to register the leaderboard WebSocket endpoint", e);
+        }
+    }
+}
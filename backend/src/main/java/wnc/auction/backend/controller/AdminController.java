@@ -33,6 +33,7 @@ public class AdminController {
     private final ProductService productService;
     private final UpgradeRequestService upgradeRequestService;
     private final NotificationService notificationService;
+    private final BidService bidService;
 
     // Dashboard
     @GetMapping("/dashboard")
@@ -167,6 +168,13 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
+    @PostMapping("/products/{id}/leaderboard/rebuild")
+    @Operation(summary = "Rebuild a product's bid leaderboard from the database")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> rebuildLeaderboard(@PathVariable Long id) {
+        int bidders = bidService.rebuildLeaderboard(id);
+        return ResponseEntity.ok(ApiResponse.success("Leaderboard rebuilt", Map.of("bidders", bidders)));
+    }
+
     // Upgrade Request Management
     @GetMapping("/upgrade-requests")
     @Operation(summary = "Get pending upgrade requests")
@@ -5,13 +5,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import wnc.auction.backend.annotation.RateLimited;
+import wnc.auction.backend.cache.IdempotencyCache;
 import wnc.auction.backend.dto.model.*;
 import wnc.auction.backend.dto.request.*;
 import wnc.auction.backend.dto.response.ApiResponse;
+import wnc.auction.backend.dto.response.BidTicketResponse;
 import wnc.auction.backend.dto.response.PageResponse;
 import wnc.auction.backend.service.*;
 
@@ -32,13 +35,25 @@ public class BidderController {
 
     // Bid Operations
     @PostMapping("/bids")
-    @Operation(summary = "Place a bid on a product")
+    @Operation(summary = "Place a bid on a product (or buy it now); supports the Idempotency-Key header")
     @RateLimited(limit = 30, windowSeconds = 60, keyPrefix = "bidder:place-bid")
-    public ResponseEntity<ApiResponse<BidDto>> placeBid(@Valid @RequestBody PlaceBidRequest request) {
-        BidDto bid = bidService.placeBid(request);
+    public ResponseEntity<ApiResponse<BidDto>> placeBid(
+            @Valid @RequestBody PlaceBidRequest request,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        BidDto bid = bidService.placeBid(request, idempotencyKey);
         return ResponseEntity.ok(ApiResponse.success("Bid placed successfully", bid));
     }
 
+    @PostMapping("/bids/async")
+    @Operation(summary = "Queue a bid; the result is delivered as a bid_result event on the notification stream")
+    @RateLimited(limit = 30, windowSeconds = 60, keyPrefix = "bidder:place-bid")
+    public ResponseEntity<ApiResponse<BidTicketResponse>> submitBid(
+            @Valid @RequestBody PlaceBidRequest request,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        BidTicketResponse ticket = bidService.submitBid(request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Bid queued", ticket));
+    }
+
     @GetMapping("/bids")
     @Operation(summary = "Get my bid history")
     public ResponseEntity<ApiResponse<PageResponse<BidDto>>> getMyBids(
@@ -2,17 +2,30 @@ package wnc.auction.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wnc.auction.backend.dto.model.InboxNotificationDto;
+import wnc.auction.backend.dto.request.StreamSubscriptionRequest;
 import wnc.auction.backend.dto.response.ApiResponse;
+import wnc.auction.backend.dto.response.CursorPageResponse;
+import wnc.auction.backend.model.enumeration.StreamTopic;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
 import wnc.auction.backend.security.CurrentUser;
+import wnc.auction.backend.service.ChatService;
+import wnc.auction.backend.service.InboxService;
 import wnc.auction.backend.service.NotificationService;
 
 @RestController
@@ -22,18 +35,77 @@ import wnc.auction.backend.service.NotificationService;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final ChatService chatService;
+    private final InboxService inboxService;
 
     @GetMapping(value = "/stream/user", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Subscribe to user notifications (SSE)")
-    public SseEmitter subscribeToUserNotifications() {
+    public SseEmitter subscribeToUserNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
         Long userId = CurrentUser.getUserId();
-        return notificationService.createUserConnection(userId);
+        return notificationService.createUserConnection(userId, lastEventId);
     }
 
     @GetMapping(value = "/stream/product/{productId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Subscribe to product bid updates (SSE)")
-    public SseEmitter subscribeToProductUpdates(@PathVariable Long productId) {
-        return notificationService.createProductConnection(productId);
+    public SseEmitter subscribeToProductUpdates(
+            @PathVariable Long productId, @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationService.createProductConnection(productId, lastEventId);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Open a multiplexed notification stream (SSE); the connected event carries the session ID")
+    public SseEmitter subscribeToSession() {
+        return notificationService.createSessionConnection(CurrentUser.getUserId());
+    }
+
+    @PostMapping("/stream/{sessionId}/subscriptions")
+    @Operation(summary = "Add a product or chat topic to a multiplexed stream")
+    public ResponseEntity<ApiResponse<Void>> subscribe(
+            @PathVariable String sessionId, @Valid @RequestBody StreamSubscriptionRequest request) {
+        Long userId = CurrentUser.getUserId();
+        if (request.getTopic() == StreamTopic.CHAT) {
+            chatService.subscribeSessionToChat(sessionId, request.getId());
+        } else {
+            notificationService.subscribe(sessionId, userId, Scope.PRODUCT, request.getId(), request.getLastEventId());
+        }
+        return ResponseEntity.ok(ApiResponse.success("Subscribed", null));
+    }
+
+    @DeleteMapping("/stream/{sessionId}/subscriptions/{topic}/{id}")
+    @Operation(summary = "Remove a product or chat topic from a multiplexed stream")
+    public ResponseEntity<ApiResponse<Void>> unsubscribe(
+            @PathVariable String sessionId, @PathVariable StreamTopic topic, @PathVariable Long id) {
+        Scope scope = topic == StreamTopic.CHAT ? Scope.CHAT : Scope.PRODUCT;
+        notificationService.unsubscribe(sessionId, CurrentUser.getUserId(), scope, id);
+        return ResponseEntity.ok(ApiResponse.success("Unsubscribed", null));
+    }
+
+    @GetMapping("/inbox")
+    @Operation(summary = "Get the caller's notification inbox, newest first; pass nextCursor as before for more")
+    public ResponseEntity<ApiResponse<CursorPageResponse<InboxNotificationDto>>> getInbox(
+            @RequestParam(required = false) Long before, @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(inboxService.getInbox(before, size)));
+    }
+
+    @GetMapping("/inbox/unread-count")
+    @Operation(summary = "Get the number of unread inbox notifications")
+    public ResponseEntity<ApiResponse<Long>> getUnreadCount() {
+        return ResponseEntity.ok(ApiResponse.success(inboxService.getUnreadCount()));
+    }
+
+    @PostMapping("/inbox/{id}/read")
+    @Operation(summary = "Mark an inbox notification as read")
+    public ResponseEntity<ApiResponse<Void>> markAsRead(@PathVariable Long id) {
+        inboxService.markAsRead(id);
+        return ResponseEntity.ok(ApiResponse.success("Notification marked as read", null));
+    }
+
+    @PostMapping("/inbox/read-all")
+    @Operation(summary = "Mark all inbox notifications as read")
+    public ResponseEntity<ApiResponse<Void>> markAllAsRead() {
+        inboxService.markAllAsRead();
+        return ResponseEntity.ok(ApiResponse.success("All notifications marked as read", null));
     }
 
     @GetMapping("/stats")
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import wnc.auction.backend.dto.model.RatingDto;
 import wnc.auction.backend.dto.model.UserDto;
+import wnc.auction.backend.dto.request.ChangeEmailDigestRequest;
 import wnc.auction.backend.dto.request.ChangeLanguageRequest;
 import wnc.auction.backend.dto.request.ChangePasswordRequest;
 import wnc.auction.backend.dto.request.UpdateProfileRequest;
@@ -69,4 +70,11 @@ public class UserController {
         userService.changeLanguage(request);
         return ResponseEntity.ok(ApiResponse.success("Language updated successfully", null));
     }
+
+    @PutMapping("/email-digest")
+    @Operation(summary = "Receive outbid and new-bid emails as an hourly digest")
+    public ResponseEntity<ApiResponse<Void>> changeEmailDigest(@Valid @RequestBody ChangeEmailDigestRequest request) {
+        userService.changeEmailDigest(request);
+        return ResponseEntity.ok(ApiResponse.success("Email digest setting updated successfully", null));
+    }
 }
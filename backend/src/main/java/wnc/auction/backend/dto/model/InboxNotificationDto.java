@@ -0,0 +1,25 @@
+package wnc.auction.backend.dto.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxNotificationDto {
+
+    private Long id;
+    private String type;
+
+    // Stored JSON, same shape as the data of the real-time event
+    @JsonRawValue
+    private String data;
+
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+}
@@ -26,6 +26,7 @@ public class UserDto {
     private Integer negativeRatings;
     private String region;
     private String preferredLanguage;
+    private Boolean bidEmailDigest;
     private Double ratingPercentage;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,15 @@
+package wnc.auction.backend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEmailDigestRequest {
+
+    @NotNull(message = "{validation.required}")
+    private Boolean enabled;
+}
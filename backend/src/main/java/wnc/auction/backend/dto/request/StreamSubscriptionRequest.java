@@ -0,0 +1,23 @@
+package wnc.auction.backend.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import wnc.auction.backend.model.enumeration.StreamTopic;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamSubscriptionRequest {
+
+    @NotNull(message = "{validation.required}")
+    private StreamTopic topic;
+
+    // Product or chat transaction ID
+    @NotNull(message = "{validation.required}")
+    private Long id;
+
+    // Last event received on this topic, to replay what was missed (product topics only)
+    private Long lastEventId;
+}
@@ -0,0 +1,19 @@
+package wnc.auction.backend.dto.response;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BidTicketResponse {
+
+    private String ticketId; // Matches the ticketId of the "bid_result" event on the user's notification stream
+    private Long productId;
+    private String status;
+    private LocalDateTime queuedAt;
+}
@@ -0,0 +1,21 @@
+package wnc.auction.backend.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+
+    // Pass as the cursor to get the next page; null on the last page
+    private Long nextCursor;
+
+    private boolean last;
+}
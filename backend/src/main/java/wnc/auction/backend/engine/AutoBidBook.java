@@ -0,0 +1,65 @@
+package wnc.auction.backend.engine;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * In-memory order book of auto-bid mandates for a single product.
+ *
+ * <p>Mandates are kept sorted by maximum (highest first), then by the order in which the maximum was set
+ * (earliest first), so the strongest competitor is found at the head of the set in O(log n).
+ */
+public class AutoBidBook {
+
+    public record Mandate(Long userId, BigDecimal maxAmount, long sequence) {}
+
+    private static final Comparator<Mandate> STRONGEST_FIRST = Comparator.comparing(Mandate::maxAmount)
+            .reversed()
+            .thenComparingLong(Mandate::sequence)
+            .thenComparing(Mandate::userId);
+
+    private final TreeSet<Mandate> ordered = new TreeSet<>(STRONGEST_FIRST);
+    private final Map<Long, Mandate> byUser = new HashMap<>();
+    private long nextSequence;
+
+    // Insert or replace the user's mandate; a new maximum queues behind existing equal ones
+    public synchronized void put(Long userId, BigDecimal maxAmount) {
+        Mandate previous = byUser.remove(userId);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+
+        Mandate mandate = new Mandate(userId, maxAmount, nextSequence++);
+        ordered.add(mandate);
+        byUser.put(userId, mandate);
+    }
+
+    public synchronized void remove(Long userId) {
+        Mandate previous = byUser.remove(userId);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+    }
+
+    public synchronized Optional<Mandate> get(Long userId) {
+        return Optional.ofNullable(byUser.get(userId));
+    }
+
+    // Strongest mandate held by anyone other than the given user (at most two head entries are inspected)
+    public synchronized Optional<Mandate> strongestExcluding(Long userId) {
+        for (Mandate mandate : ordered) {
+            if (!mandate.userId().equals(userId)) {
+                return Optional.of(mandate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized int size() {
+        return ordered.size();
+    }
+}
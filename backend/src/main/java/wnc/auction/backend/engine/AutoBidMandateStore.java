@@ -0,0 +1,206 @@
+package wnc.auction.backend.engine;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.cache.BlockedBidderIndex;
+import wnc.auction.backend.model.AutoBidMandate;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.repository.AutoBidMandateRepository;
+import wnc.auction.backend.repository.BidRepository;
+
+/**
+ * Auto-bid mandates backed by the {@code auto_bid_mandates} table with an in-memory {@link AutoBidBook} per
+ * product. Books are loaded lazily and mutated only from the product's bid lane; if the surrounding
+ * transaction rolls back the book is dropped and reloaded from the table on next use.
+ *
+ * <p>Each node keeps its own books, so a committed change to a product's mandates (and the closing of its
+ * auction) drops that book on the other nodes via Redis pub/sub. As in {@link BlockedBidderIndex}, a book loaded
+ * while such an eviction arrived is used but not cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AutoBidMandateStore {
+
+    private static final String INVALIDATION_CHANNEL = "auto-bid-books:invalidate";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AutoBidMandateRepository mandateRepository;
+    private final BidRepository bidRepository;
+    private final BlockedBidderIndex blockedBidderIndex;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Clock clock;
+
+    private final Map<Long, AutoBidBook> books = new ConcurrentHashMap<>();
+
+    // Eviction count per stripe of product IDs; products sharing a stripe only cost each other a cached load
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    // This node already applied its own changes to its books, so it skips its own messages
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> {
+                    String[] parts = new String(message.getBody()).split(":");
+                    if (!nodeId.equals(parts[0])) {
+                        evictLocal(Long.valueOf(parts[1]));
+                    }
+                },
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public void upsert(Product product, User user, BigDecimal maxAmount) {
+        AutoBidBook book = bookFor(product.getId());
+
+        AutoBidMandate mandate = mandateRepository
+                .findByProductIdAndUserId(product.getId(), user.getId())
+                .orElseGet(() ->
+                        AutoBidMandate.builder().product(product).user(user).build());
+        mandate.setMaxAmount(maxAmount);
+        mandate.setMaxSetAt(LocalDateTime.now(clock));
+        mandateRepository.save(mandate);
+
+        book.put(user.getId(), maxAmount);
+        publishOnCommit(product.getId());
+    }
+
+    public void remove(Long productId, Long userId) {
+        AutoBidBook book = bookFor(productId);
+
+        mandateRepository.deleteByProductIdAndUserId(productId, userId);
+
+        book.remove(userId);
+        publishOnCommit(productId);
+    }
+
+    public Optional<AutoBidBook.Mandate> strongestCompetitor(Long productId, Long userId) {
+        return bookFor(productId).strongestExcluding(userId);
+    }
+
+    // Drop the book on every node (e.g. once the auction is closed)
+    public void evict(Long productId) {
+        evictLocal(productId);
+        publishOnCommit(productId);
+    }
+
+    private AutoBidBook bookFor(Long productId) {
+        AutoBidBook book = books.get(productId);
+        if (book == null) {
+            int stripe = stripe(productId);
+            long generation = generations.get(stripe);
+            AutoBidBook loaded = load(productId);
+            // Runs under the key's lock, like the removal in evictLocal, so an eviction after the check still wins
+            AutoBidBook cached = books.compute(
+                    productId,
+                    (id, current) -> current != null || generations.get(stripe) != generation ? current : loaded);
+            book = cached != null ? cached : loaded;
+        }
+        return book;
+    }
+
+    private AutoBidBook load(Long productId) {
+        List<AutoBidMandate> mandates = mandateRepository.findByProductId(productId);
+        if (mandates.isEmpty()) {
+            mandates = migrateLegacyAutoBids(productId);
+        }
+
+        AutoBidBook book = new AutoBidBook();
+        mandates.stream()
+                .sorted(Comparator.comparing(AutoBidMandate::getMaxSetAt))
+                .forEach(m -> book.put(m.getUser().getId(), m.getMaxAmount()));
+
+        log.debug("Loaded {} auto-bid mandates for product {}", book.size(), productId);
+        return book;
+    }
+
+    // Products whose auto-bids predate the mandate table: keep the latest auto-bid per (non-blocked) user
+    private List<AutoBidMandate> migrateLegacyAutoBids(Long productId) {
+        List<Bid> autoBids = bidRepository.findAutoBidsByProductId(productId);
+        if (autoBids.isEmpty()) {
+            return List.of();
+        }
+
+        BlockedBidderIndex.BlockedSet blockedUserIds = blockedBidderIndex.get(productId);
+
+        // Bids are ordered by creation time, so later bids overwrite earlier ones
+        Map<Long, Bid> latestPerUser = new LinkedHashMap<>();
+        for (Bid bid : autoBids) {
+            if (!blockedUserIds.contains(bid.getUser().getId())) {
+                latestPerUser.put(bid.getUser().getId(), bid);
+            }
+        }
+
+        List<AutoBidMandate> migrated = latestPerUser.values().stream()
+                .map(bid -> AutoBidMandate.builder()
+                        .product(bid.getProduct())
+                        .user(bid.getUser())
+                        .maxAmount(bid.getMaxAutoBidAmount())
+                        .maxSetAt(bid.getCreatedAt())
+                        .build())
+                .toList();
+
+        log.info("Migrated {} legacy auto-bids to mandates for product {}", migrated.size(), productId);
+        return mandateRepository.saveAll(migrated);
+    }
+
+    // Other nodes drop their book once the change is committed; a rolled back change drops the local one
+    private void publishOnCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(productId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(productId);
+                } else {
+                    evictLocal(productId);
+                }
+            }
+        });
+    }
+
+    private void evictLocal(Long productId) {
+        generations.incrementAndGet(stripe(productId));
+        books.remove(productId);
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), GENERATION_STRIPES);
+    }
+
+    private void publish(Long productId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + productId);
+        } catch (DataAccessException e) {
+            // Other nodes keep their book until it is evicted locally, as before
+            log.warn("Failed to broadcast auto-bid book invalidation for product {}", productId, e);
+        }
+    }
+}
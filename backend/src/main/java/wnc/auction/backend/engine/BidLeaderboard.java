@@ -0,0 +1,419 @@
+package wnc.auction.backend.engine;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.cache.BlockedBidderIndex;
+import wnc.auction.backend.dto.model.BidHistoryDto;
+import wnc.auction.backend.mapper.BidMapper;
+import wnc.auction.backend.model.Bid;
+import wnc.auction.backend.repository.BidRepository;
+
+/**
+ * Per-product bid leaderboard materialized in Redis: one sorted-set member per bidder holding their best bid.
+ *
+ * <p>Members encode the bid time so that equal amounts rank the earlier bid first, matching the
+ * {@code amount DESC, createdAt ASC} order used by the database queries. Leaderboards are built from the
+ * database on first use (or on demand via {@link #rebuild(Long)}) and then maintained incrementally from
+ * committed bids. Updates and rebuilds run on the product's bid lane, so they cannot interleave.
+ *
+ * <p>Reads never wait on the lane. A read that finds no leaderboard answers from the database and stores that
+ * ranking only if the leaderboard is still missing and no lane change (removal, invalidation) happened since its
+ * read began; a bid committed meanwhile finds no leaderboard and rebuilds it on its lane, so the stale ranking
+ * is dropped.
+ */
+@Component
+@Slf4j
+public class BidLeaderboard {
+
+    private static final String KEY_PREFIX = "leaderboard:{product:";
+
+    // Replace the bidder's entry only if the new bid beats their current best (-1 = leaderboard not built)
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+			if redis.call('EXISTS', KEYS[3]) == 0 then return -1 end
+			local previous = redis.call('HGET', KEYS[2], ARGV[1])
+			if previous then
+				local member = cjson.decode(previous)['member']
+				local score = tonumber(redis.call('ZSCORE', KEYS[1], member))
+				if score and score >= tonumber(ARGV[2]) then return 0 end
+				redis.call('ZREM', KEYS[1], member)
+			end
+			redis.call('ZADD', KEYS[1], ARGV[2], ARGV[3])
+			redis.call('HSET', KEYS[2], ARGV[1], ARGV[4])
+			for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[5]) end
+			return 1
+			""", Long.class);
+
+    // KEYS = ranking, entries, built, version; ARGV = version the ranking was read at, TTL, then
+    // score/member/user/entry quadruples. Returns 0 if the leaderboard was built or changed meanwhile.
+    private static final RedisScript<Long> BUILD_SCRIPT = new DefaultRedisScript<>("""
+			if redis.call('EXISTS', KEYS[3]) == 1 then return 0 end
+			if (redis.call('GET', KEYS[4]) or '0') ~= ARGV[1] then return 0 end
+			redis.call('DEL', KEYS[1], KEYS[2])
+			for i = 3, #ARGV, 4 do
+				redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1])
+				redis.call('HSET', KEYS[2], ARGV[i + 2], ARGV[i + 3])
+			end
+			redis.call('SET', KEYS[3], '1')
+			for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[2]) end
+			return 1
+			""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final BidRepository bidRepository;
+    private final BlockedBidderIndex blockedBidderIndex;
+    private final BidSequencer bidSequencer;
+    private final Duration ttl;
+
+    public BidLeaderboard(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            BidRepository bidRepository,
+            BlockedBidderIndex blockedBidderIndex,
+            BidSequencer bidSequencer,
+            @Value("${app.auction.leaderboard.ttl-hours:168}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.bidRepository = bidRepository;
+        this.blockedBidderIndex = blockedBidderIndex;
+        this.bidSequencer = bidSequencer;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    // Stored per bidder next to the sorted set: the member to remove when their best bid improves
+    record Entry(String member, BidHistoryDto bid) {}
+
+    /**
+     * Apply a committed bid. Must be called on the product's bid lane after the bid's transaction commits.
+     */
+    public void record(Long productId, Bid bid) {
+        BidHistoryDto dto = BidMapper.toHistoryDto(bid);
+        String member = member(dto);
+
+        try {
+            Long result = redisTemplate.execute(
+                    RECORD_SCRIPT,
+                    keys(productId),
+                    dto.getUserId().toString(),
+                    dto.getAmount().toPlainString(),
+                    member,
+                    objectMapper.writeValueAsString(new Entry(member, dto)),
+                    String.valueOf(ttl.toSeconds()));
+
+            if (result != null && result < 0) {
+                rebuild(productId);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to update leaderboard for product {}, dropping it", productId, e);
+            invalidate(productId);
+        }
+    }
+
+    /**
+     * Remove a bidder (e.g. blocked by the seller). Must be called on the product's bid lane.
+     */
+    public void remove(Long productId, Long userId) {
+        try {
+            bumpVersion(productId);
+            String json = (String) redisTemplate.opsForHash().get(entriesKey(productId), userId.toString());
+            if (json == null) {
+                return;
+            }
+            redisTemplate
+                    .opsForZSet()
+                    .remove(rankingKey(productId), readEntry(json).member());
+            redisTemplate.opsForHash().delete(entriesKey(productId), userId.toString());
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to remove user {} from leaderboard of product {}, dropping it", userId, productId, e);
+            invalidate(productId);
+        }
+    }
+
+    // Ranked entries [offset, offset + count), rank 1 = highest bidder
+    public List<BidHistoryDto> top(Long productId, int offset, int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+
+        try {
+            List<BidHistoryDto> loaded = buildIfMissing(productId);
+            if (loaded != null) {
+                return loaded.stream().skip(offset).limit(count).toList();
+            }
+
+            Set<String> members =
+                    redisTemplate.opsForZSet().reverseRange(rankingKey(productId), offset, offset + count - 1);
+            if (members == null || members.isEmpty()) {
+                return List.of();
+            }
+
+            List<Object> userIds =
+                    members.stream().map(m -> (Object) userIdOf(m)).toList();
+            List<Object> entries = redisTemplate.opsForHash().multiGet(entriesKey(productId), userIds);
+
+            List<BidHistoryDto> result = new ArrayList<>(entries.size());
+            int rank = offset + 1;
+            for (Object json : entries) {
+                if (json == null) {
+                    continue;
+                }
+                BidHistoryDto dto = readEntry((String) json).bid();
+                dto.setRank(rank++);
+                result.add(dto);
+            }
+            return result;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Leaderboard unavailable for product {}, reading from database", productId, e);
+            return loadFromDatabase(productId).stream()
+                    .skip(offset)
+                    .limit(count)
+                    .toList();
+        }
+    }
+
+    public long size(Long productId) {
+        try {
+            List<BidHistoryDto> loaded = buildIfMissing(productId);
+            if (loaded != null) {
+                return loaded.size();
+            }
+            Long size = redisTemplate.opsForZSet().zCard(rankingKey(productId));
+            return size == null ? 0 : size;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Leaderboard unavailable for product {}, reading from database", productId, e);
+            return loadFromDatabase(productId).size();
+        }
+    }
+
+    // 1-based rank of the user's best bid, or null if they have not bid
+    public Integer rankOf(Long productId, Long userId) {
+        try {
+            List<BidHistoryDto> loaded = buildIfMissing(productId);
+            if (loaded != null) {
+                return rankIn(loaded, userId);
+            }
+
+            String json = (String) redisTemplate.opsForHash().get(entriesKey(productId), userId.toString());
+            if (json == null) {
+                return null;
+            }
+            Long rank = redisTemplate
+                    .opsForZSet()
+                    .reverseRank(rankingKey(productId), readEntry(json).member());
+            return rank == null ? null : rank.intValue() + 1;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Leaderboard unavailable for product {}, reading from database", productId, e);
+            return rankIn(loadFromDatabase(productId), userId);
+        }
+    }
+
+    /**
+     * 1-based ranks of the given users' best bids, read from the ranking in one round trip; users who have not
+     * bid are left out.
+     */
+    public Map<Long, Integer> ranksOf(Long productId, Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            List<BidHistoryDto> loaded = buildIfMissing(productId);
+            if (loaded != null) {
+                return ranksIn(loaded, userIds);
+            }
+
+            // Members only, the entries are not needed for a rank
+            Set<String> members = redisTemplate.opsForZSet().reverseRange(rankingKey(productId), 0, -1);
+            Map<Long, Integer> ranks = new HashMap<>();
+            int rank = 1;
+            for (String member : members == null ? Set.<String>of() : members) {
+                Long userId = Long.valueOf(userIdOf(member));
+                if (userIds.contains(userId)) {
+                    ranks.put(userId, rank);
+                }
+                rank++;
+            }
+            return ranks;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Leaderboard unavailable for product {}, reading from database", productId, e);
+            return ranksIn(loadFromDatabase(productId), userIds);
+        }
+    }
+
+    /**
+     * Replace the leaderboard with the ranking computed from the database.
+     *
+     * @return number of ranked bidders
+     */
+    public int rebuild(Long productId) {
+        return bidSequencer.execute(productId, () -> {
+            List<BidHistoryDto> ranking = loadFromDatabase(productId);
+            writeAll(productId, ranking);
+            log.info("Rebuilt leaderboard for product {} with {} bidders", productId, ranking.size());
+            return ranking.size();
+        });
+    }
+
+    /**
+     * Null if the leaderboard is built. Otherwise the ranking read from the database, which is also stored as
+     * the leaderboard unless a bid lane built or changed it meanwhile.
+     */
+    private List<BidHistoryDto> buildIfMissing(Long productId) throws JsonProcessingException {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(builtKey(productId)))) {
+            return null;
+        }
+
+        String version = redisTemplate.opsForValue().get(versionKey(productId));
+        List<BidHistoryDto> ranking = loadFromDatabase(productId);
+
+        List<String> args = new ArrayList<>(2 + ranking.size() * 4);
+        args.add(version == null ? "0" : version);
+        args.add(String.valueOf(ttl.toSeconds()));
+        for (BidHistoryDto dto : ranking) {
+            String member = member(dto);
+            args.add(dto.getAmount().toPlainString());
+            args.add(member);
+            args.add(dto.getUserId().toString());
+            args.add(objectMapper.writeValueAsString(new Entry(member, dto)));
+        }
+        List<String> keys =
+                List.of(rankingKey(productId), entriesKey(productId), builtKey(productId), versionKey(productId));
+        redisTemplate.execute(BUILD_SCRIPT, keys, args.toArray());
+        return ranking;
+    }
+
+    private void writeAll(Long productId, List<BidHistoryDto> ranking) {
+        List<String> keys = keys(productId);
+
+        Map<String, String> entries = new HashMap<>();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        for (BidHistoryDto dto : ranking) {
+            String member = member(dto);
+            tuples.add(ZSetOperations.TypedTuple.of(member, dto.getAmount().doubleValue()));
+            try {
+                entries.put(dto.getUserId().toString(), objectMapper.writeValueAsString(new Entry(member, dto)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) {
+                operations.multi();
+                operations.delete(keys);
+                if (!tuples.isEmpty()) {
+                    operations.opsForZSet().add(keys.get(0), tuples);
+                    operations.opsForHash().putAll(keys.get(1), entries);
+                }
+                operations.opsForValue().set(keys.get(2), "1");
+                for (String key : keys) {
+                    operations.expire(key, ttl);
+                }
+                return operations.exec();
+            }
+        });
+    }
+
+    private void invalidate(Long productId) {
+        try {
+            bumpVersion(productId);
+            redisTemplate.delete(builtKey(productId));
+        } catch (DataAccessException e) {
+            log.error("Failed to invalidate leaderboard for product {}", productId, e);
+        }
+    }
+
+    // Lets reads that loaded the ranking before this change know not to store it
+    private void bumpVersion(Long productId) {
+        redisTemplate.opsForValue().increment(versionKey(productId));
+        redisTemplate.expire(versionKey(productId), ttl);
+    }
+
+    private static Integer rankIn(List<BidHistoryDto> ranking, Long userId) {
+        return ranking.stream()
+                .filter(dto -> dto.getUserId().equals(userId))
+                .map(BidHistoryDto::getRank)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Map<Long, Integer> ranksIn(List<BidHistoryDto> ranking, Set<Long> userIds) {
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (BidHistoryDto dto : ranking) {
+            if (userIds.contains(dto.getUserId())) {
+                ranks.put(dto.getUserId(), dto.getRank());
+            }
+        }
+        return ranks;
+    }
+
+    // Best bid per non-blocked bidder, ranked like the Redis leaderboard
+    private List<BidHistoryDto> loadFromDatabase(Long productId) {
+        BlockedBidderIndex.BlockedSet blockedUserIds = blockedBidderIndex.get(productId);
+
+        Set<Long> seen = new HashSet<>();
+        List<BidHistoryDto> ranking = new ArrayList<>();
+        for (Bid bid : bidRepository.findByProductOrderByAmountDesc(productId)) {
+            Long userId = bid.getUser().getId();
+            if (blockedUserIds.contains(userId) || !seen.add(userId)) {
+                continue;
+            }
+            BidHistoryDto dto = BidMapper.toHistoryDto(bid);
+            dto.setRank(ranking.size() + 1);
+            ranking.add(dto);
+        }
+        return ranking;
+    }
+
+    private Entry readEntry(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, Entry.class);
+    }
+
+    // Inverted timestamp first: members with equal scores come out earliest-first from ZREVRANGE
+    private static String member(BidHistoryDto dto) {
+        LocalDateTime createdAt = dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now();
+        long millis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return String.format("%019d:%d", Long.MAX_VALUE - millis, dto.getUserId());
+    }
+
+    private static String userIdOf(String member) {
+        return member.substring(member.indexOf(':') + 1);
+    }
+
+    private static List<String> keys(Long productId) {
+        return List.of(rankingKey(productId), entriesKey(productId), builtKey(productId));
+    }
+
+    // Hash tag keeps all keys of one product in the same cluster slot (required by the Lua script)
+    private static String rankingKey(Long productId) {
+        return KEY_PREFIX + productId + "}:ranking";
+    }
+
+    private static String entriesKey(Long productId) {
+        return KEY_PREFIX + productId + "}:entries";
+    }
+
+    private static String builtKey(Long productId) {
+        return KEY_PREFIX + productId + "}:built";
+    }
+
+    private static String versionKey(Long productId) {
+        return KEY_PREFIX + productId + "}:version";
+    }
+}
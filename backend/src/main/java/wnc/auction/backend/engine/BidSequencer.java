@@ -0,0 +1,198 @@
+package wnc.auction.backend.engine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.exception.AuctionException;
+import wnc.auction.backend.exception.OutcomeUnknownException;
+import wnc.auction.backend.exception.RateLimitExceededException;
+import wnc.auction.backend.utils.Constants;
+import wnc.auction.backend.utils.MessagesUtils;
+
+/**
+ * Single-writer sequencer for product state changes.
+ *
+ * <p>Every task for a given product ID is routed to the same lane (a single-threaded executor), so bids,
+ * blocks and closings on one product are applied strictly in order while different products proceed in
+ * parallel on different lanes. This class lives outside the {@code service} package on purpose: it is on the
+ * hot path of every bid and must not be wrapped by the service audit/logging aspects.
+ */
+@Component
+@Slf4j
+public class BidSequencer {
+
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    private final List<Lane> lanes;
+    private final long timeoutSeconds;
+
+    public BidSequencer(
+            MeterRegistry meterRegistry,
+            @Value("${app.auction.sequencer.lanes:16}") int laneCount,
+            @Value("${app.auction.sequencer.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.auction.sequencer.timeout-seconds:30}") long timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new Lane(i, queueCapacity, meterRegistry));
+        }
+        log.info("Bid sequencer started with {} lanes (queue capacity {})", laneCount, queueCapacity);
+    }
+
+    /**
+     * Run the task on the lane owning the product and wait for its result.
+     * Runtime exceptions thrown by the task are rethrown unchanged to the caller.
+     *
+     * <p>If the wait times out before the task started, the task is dropped from the lane and a
+     * {@link RateLimitExceededException} tells the caller it was not applied. If it had already started, it may
+     * still be applied, which an {@link OutcomeUnknownException} tells the caller.
+     */
+    public <T> T execute(Long productId, Supplier<T> task) {
+        Lane lane = laneFor(productId);
+
+        // Already on this lane (nested call) - run inline to avoid waiting on ourselves
+        if (CURRENT_LANE.get() == lane) {
+            return task.get();
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<T> future = enqueue(lane, productId, task, claimed);
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw abandoned(lane, productId, claimed, future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abandoned(lane, productId, claimed, future);
+        }
+    }
+
+    /**
+     * Enqueue the task on the lane owning the product without waiting for it.
+     */
+    public <T> CompletableFuture<T> submit(Long productId, Supplier<T> task) {
+        return enqueue(laneFor(productId), productId, task, new AtomicBoolean());
+    }
+
+    // The lane and a caller giving up race for the claim, so a task is either run or dropped, never both
+    private <T> CompletableFuture<T> enqueue(Lane lane, Long productId, Supplier<T> task, AtomicBoolean claimed) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            lane.executor.execute(() -> {
+                lane.waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                long startedAt = System.nanoTime();
+                CURRENT_LANE.set(lane);
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    CURRENT_LANE.remove();
+                    lane.executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Lane {} is full, rejecting task for product {}", lane.index, productId);
+            throw new RateLimitExceededException(MessagesUtils.getMessage(Constants.ErrorCode.BID_QUEUE_FULL), 1, 0);
+        }
+
+        return future;
+    }
+
+    private AuctionException abandoned(Lane lane, Long productId, AtomicBoolean claimed, CompletableFuture<?> future) {
+        if (claimed.compareAndSet(false, true)) {
+            future.cancel(false);
+            log.warn(
+                    "Timed out after {}s waiting for lane {} (product {}), task dropped",
+                    timeoutSeconds,
+                    lane.index,
+                    productId);
+            return new RateLimitExceededException(
+                    MessagesUtils.getMessage(Constants.ErrorCode.BID_PROCESSING_TIMEOUT), 1, 0);
+        }
+        log.warn(
+                "Timed out after {}s waiting for lane {} (product {}), task still running",
+                timeoutSeconds,
+                lane.index,
+                productId);
+        return new OutcomeUnknownException(future, Constants.ErrorCode.BID_OUTCOME_UNKNOWN);
+    }
+
+    private Lane laneFor(Long productId) {
+        return lanes.get(Math.floorMod(Long.hashCode(productId), lanes.size()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                    log.warn(
+                            "Lane {} did not drain in time, {} tasks dropped",
+                            lane.index,
+                            lane.executor.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.executor.shutdownNow();
+            }
+        }
+    }
+
+    private static final class Lane {
+
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final Timer waitTimer;
+        private final Timer executionTimer;
+
+        private Lane(int index, int queueCapacity, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "bid-lane-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            String laneTag = String.valueOf(index);
+            Gauge.builder("auction.bid.sequencer.queue.depth", executor, e -> e.getQueue()
+                            .size())
+                    .description("Number of tasks waiting in a bid lane")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("auction.bid.sequencer.wait")
+                    .description("Time a task spent queued before its lane picked it up")
+                    .tag("lane", laneTag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.executionTimer = Timer.builder("auction.bid.sequencer.execution")
+                    .description("Time a lane spent executing a task")
+                    .tag("lane", laneTag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+    }
+}
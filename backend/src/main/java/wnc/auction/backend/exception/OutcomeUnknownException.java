@@ -0,0 +1,21 @@
+package wnc.auction.backend.exception;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The request timed out while its work was already running, so it may still be applied. {@link #outcome()}
+ * completes when that work ends.
+ */
+public class OutcomeUnknownException extends ConflictException {
+
+    private final transient CompletableFuture<?> outcome;
+
+    public OutcomeUnknownException(CompletableFuture<?> outcome, String errorCode, Object... args) {
+        super(errorCode, args);
+        this.outcome = outcome;
+    }
+
+    public CompletableFuture<?> outcome() {
+        return outcome;
+    }
+}
@@ -0,0 +1,187 @@
+package wnc.auction.backend.inbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.model.InboxNotification;
+import wnc.auction.backend.repository.InboxNotificationRepository;
+
+/**
+ * Persists user notifications to the inbox off the caller's thread. Notifications are queued and written by a
+ * single thread in group commits: the first one opens a window of {@code flush-interval-ms}, and everything
+ * queued by then (up to {@code batch-size}) is inserted in one batched transaction. The unread counters of the
+ * users in the batch are bumped after the commit.
+ *
+ * <p>When the queue is full the caller writes its notification itself, which slows producers down instead of
+ * losing notifications. Queued notifications are flushed on shutdown.
+ */
+@Component
+@Slf4j
+public class NotificationInboxWriter {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final InboxNotificationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounter unreadCounter;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final BlockingQueue<Pending> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+    private final Counter failed;
+
+    private record Pending(Long userId, String type, Object data, LocalDateTime createdAt) {}
+
+    public NotificationInboxWriter(
+            InboxNotificationRepository repository,
+            TransactionTemplate transactionTemplate,
+            UnreadCounter unreadCounter,
+            ObjectMapper objectMapper,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.notification.inbox.batch-size:200}") int batchSize,
+            @Value("${app.notification.inbox.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${app.notification.inbox.queue-capacity:10000}") int queueCapacity) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.unreadCounter = unreadCounter;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = Duration.ofMillis(flushIntervalMs).toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::run, "inbox-writer");
+        this.flusher.setDaemon(true);
+
+        Gauge.builder("auction.inbox.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting to be written to the inbox")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("auction.inbox.batch.size")
+                .description("Notifications written per inbox commit")
+                .register(meterRegistry);
+        this.failed = Counter.builder("auction.inbox.failed")
+                .description("Notifications that could not be written to the inbox")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queues a notification for the user's inbox; {@code data} is stored as JSON and must not be modified
+     * afterwards.
+     */
+    public void append(Long userId, String type, Object data) {
+        Pending pending = new Pending(userId, type, data, LocalDateTime.now(clock));
+        if (!queue.offer(pending)) {
+            write(List.of(pending));
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down, write what is left
+            }
+            write(batch);
+            batch.clear();
+        }
+
+        queue.drainTo(batch);
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            write(batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<InboxNotification> notifications = new ArrayList<>(batch.size());
+        Map<Long, Long> unreadByUser = new HashMap<>();
+        for (Pending pending : batch) {
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(pending.data());
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize {} notification for user {}", pending.type(), pending.userId(), e);
+                failed.increment();
+                continue;
+            }
+            notifications.add(InboxNotification.builder()
+                    .userId(pending.userId())
+                    .type(pending.type())
+                    .payload(payload)
+                    .createdAt(pending.createdAt())
+                    .build());
+            unreadByUser.merge(pending.userId(), 1L, Long::sum);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.saveAll(notifications));
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Dropping {} inbox notifications after {} attempts", notifications.size(), attempt, e);
+                    failed.increment(notifications.size());
+                    return;
+                }
+                log.warn("Failed to write {} inbox notifications, retrying", notifications.size(), e);
+                notifications.forEach(notification -> notification.setId(null));
+                LockSupport.parkNanos(flushIntervalNanos * attempt);
+            }
+        }
+
+        batchSizes.record(notifications.size());
+        unreadByUser.forEach(unreadCounter::increment);
+    }
+}
@@ -0,0 +1,105 @@
+package wnc.auction.backend.inbox;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Unread inbox count per user, cached in Redis. The count is loaded from the database on a miss and kept up to
+ * date by the inbox writer; marking notifications read drops it. A counter that is not cached is not
+ * incremented, so every change also bumps a per-user version: a count loaded on a miss is only cached if the
+ * version did not move while it was loaded, otherwise a change committed during the load would be lost until
+ * the TTL expires.
+ */
+@Component
+@Slf4j
+public class UnreadCounter {
+
+    private static final String KEY_PREFIX = "inbox:unread:{";
+
+    // KEYS[1] = counter, KEYS[2] = version; ARGV[1] = delta, ARGV[2] = TTL in seconds
+    private static final RedisScript<Long> INCREMENT_IF_CACHED_SCRIPT = new DefaultRedisScript<>("""
+			redis.call('INCR', KEYS[2])
+			redis.call('EXPIRE', KEYS[2], ARGV[2])
+			if redis.call('EXISTS', KEYS[1]) == 1 then
+				return redis.call('INCRBY', KEYS[1], ARGV[1])
+			end
+			return -1
+			""", Long.class);
+
+    // KEYS[1] = counter, KEYS[2] = version; ARGV[1] = version the count was loaded at, ARGV[2] = count,
+    // ARGV[3] = TTL in seconds
+    private static final RedisScript<Long> CACHE_IF_UNCHANGED_SCRIPT = new DefaultRedisScript<>("""
+			if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end
+			if redis.call('SET', KEYS[1], ARGV[2], 'NX', 'EX', ARGV[3]) then return 1 end
+			return 0
+			""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public UnreadCounter(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.notification.inbox.unread-ttl-minutes:30}") long ttlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    public long get(Long userId, LongSupplier loader) {
+        List<String> keys = keys(userId);
+        String version;
+        try {
+            List<String> cached = redisTemplate.opsForValue().multiGet(keys);
+            if (cached != null && cached.get(0) != null) {
+                return Long.parseLong(cached.get(0));
+            }
+            version = cached == null || cached.get(1) == null ? "0" : cached.get(1);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read the unread count of user {}", userId, e);
+            return loader.getAsLong();
+        }
+
+        long count = loader.getAsLong();
+        try {
+            redisTemplate.execute(
+                    CACHE_IF_UNCHANGED_SCRIPT, keys, version, String.valueOf(count), String.valueOf(ttl.toSeconds()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to cache the unread count of user {}", userId, e);
+        }
+        return count;
+    }
+
+    public void increment(Long userId, long delta) {
+        try {
+            redisTemplate.execute(
+                    INCREMENT_IF_CACHED_SCRIPT, keys(userId), String.valueOf(delta), String.valueOf(ttl.toSeconds()));
+        } catch (DataAccessException e) {
+            // A stale count could outlive the TTL if it stayed cached, drop it instead
+            invalidate(userId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        List<String> keys = keys(userId);
+        try {
+            // Version first, so a load that started before the change is not cached after the delete
+            redisTemplate.opsForValue().increment(keys.get(1));
+            redisTemplate.expire(keys.get(1), ttl);
+            redisTemplate.delete(keys.get(0));
+        } catch (DataAccessException e) {
+            log.warn("Failed to drop the unread count of user {}", userId, e);
+        }
+    }
+
+    // Hash tag keeps the counter and its version in the same cluster slot (required by the scripts)
+    private static List<String> keys(Long userId) {
+        return List.of(KEY_PREFIX + userId + "}", KEY_PREFIX + userId + "}:version");
+    }
+}
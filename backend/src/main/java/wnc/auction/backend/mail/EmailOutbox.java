@@ -0,0 +1,79 @@
+package wnc.auction.backend.mail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.model.EmailMessage;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+import wnc.auction.backend.repository.EmailMessageRepository;
+
+/**
+ * Queues rendered emails for the {@link EmailRelay}, so no caller waits on the mail server. Inside a transaction
+ * the email is only sent if that transaction commits, and the relay is woken up right after the commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private final EmailMessageRepository emailMessageRepository;
+    private final EmailRelay emailRelay;
+
+    public record Email(String to, String subject, String html) {}
+
+    public void enqueue(String to, String subject, String html, EmailPriority priority) {
+        emailMessageRepository.save(toMessage(new Email(to, subject, html), priority, LocalDateTime.now()));
+        wakeUpAfterCommit(priority);
+    }
+
+    /**
+     * Queues an email whose body holds a secret, such as a one-time password, on the high lane. The body is
+     * blanked once the email is sent and is not copied to the dead letters.
+     */
+    public void enqueueSensitive(String to, String subject, String html) {
+        EmailMessage message = toMessage(new Email(to, subject, html), EmailPriority.HIGH, LocalDateTime.now());
+        message.setSensitive(true);
+        emailMessageRepository.save(message);
+        wakeUpAfterCommit(EmailPriority.HIGH);
+    }
+
+    /**
+     * Queues all emails in one transaction; they are inserted in JDBC batches.
+     */
+    @Transactional
+    public void enqueueAll(List<Email> emails, EmailPriority priority) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        emailMessageRepository.saveAll(
+                emails.stream().map(email -> toMessage(email, priority, now)).toList());
+        wakeUpAfterCommit(priority);
+    }
+
+    private static EmailMessage toMessage(Email email, EmailPriority priority, LocalDateTime now) {
+        return EmailMessage.builder()
+                .recipient(email.to())
+                .subject(email.subject())
+                .body(email.html())
+                .priority(priority)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    private void wakeUpAfterCommit(EmailPriority priority) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emailRelay.wakeUp(priority);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailRelay.wakeUp(priority);
+            }
+        });
+    }
+}
@@ -0,0 +1,354 @@
+package wnc.auction.backend.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.model.EmailDeadLetter;
+import wnc.auction.backend.model.EmailMessage;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+import wnc.auction.backend.repository.EmailDeadLetterRepository;
+import wnc.auction.backend.repository.EmailMessageRepository;
+
+/**
+ * Sends the emails queued in the email outbox.
+ *
+ * <p>Each {@link EmailPriority} is a lane with its own dispatcher thread, so a one-time password never waits
+ * behind a burst of auction mail. A dispatcher claims due emails of its lane ({@code FOR UPDATE SKIP LOCKED})
+ * and sends them in chunks of {@code messages-per-connection}, each chunk over a single SMTP connection. The
+ * normal lane sends its chunks on the mail worker pool; the high lane sends on its dispatcher thread. Failed
+ * emails are retried with exponential backoff and moved to the dead-letter table after {@code max-attempts},
+ * without their body. Sensitive emails have their body blanked as soon as they are sent, so one-time passwords
+ * do not sit in the outbox until the sent emails are purged.
+ */
+@Component
+@Slf4j
+public class EmailRelay {
+
+    private final EmailMessageRepository messageRepository;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor workers;
+    private final MeterRegistry meterRegistry;
+
+    private final String fromAddress;
+    private final int batchSize;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration staleClaimAfter;
+    private final int retentionDays;
+
+    private final Map<EmailPriority, Lane> lanes = new EnumMap<>(EmailPriority.class);
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final DistributionSummary connectionBatches;
+
+    private static final class Lane {
+        private final EmailPriority priority;
+        private final ExecutorService dispatcher;
+        private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+        private Lane(EmailPriority priority) {
+            this.priority = priority;
+            this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(
+                        runnable, "mail-dispatcher-" + priority.name().toLowerCase());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public EmailRelay(
+            EmailMessageRepository messageRepository,
+            EmailDeadLetterRepository deadLetterRepository,
+            JavaMailSender mailSender,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("mailExecutor") TaskExecutor workers,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.from-address}") String fromAddress,
+            @Value("${app.mail.outbox.batch-size:100}") int batchSize,
+            @Value("${app.mail.outbox.messages-per-connection:25}") int messagesPerConnection,
+            @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.mail.outbox.backoff-base-ms:5000}") long backoffBaseMs,
+            @Value("${app.mail.outbox.backoff-max-ms:1800000}") long backoffMaxMs,
+            @Value("${app.mail.outbox.stale-claim-seconds:300}") long staleClaimSeconds,
+            @Value("${app.mail.outbox.retention-days:3}") int retentionDays) {
+        this.messageRepository = messageRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.meterRegistry = meterRegistry;
+        this.fromAddress = fromAddress;
+        this.batchSize = batchSize;
+        this.messagesPerConnection = messagesPerConnection;
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+        this.staleClaimAfter = Duration.ofSeconds(staleClaimSeconds);
+        this.retentionDays = retentionDays;
+
+        for (EmailPriority priority : EmailPriority.values()) {
+            lanes.put(priority, new Lane(priority));
+        }
+
+        Gauge.builder("auction.mail.backlog", backlog, AtomicLong::get)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        this.connectionBatches = DistributionSummary.builder("auction.mail.connection.batch")
+                .description("Emails sent per SMTP connection")
+                .register(meterRegistry);
+    }
+
+    // Coalesces concurrent wake-ups of a lane into at most one pending drain
+    public void wakeUp(EmailPriority priority) {
+        Lane lane = lanes.get(priority);
+        if (lane.drainRequested.compareAndSet(false, true)) {
+            lane.dispatcher.execute(() -> drain(lane));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        refreshBacklog();
+        lanes.keySet().forEach(this::wakeUp);
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.cleanup-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(
+                status -> messageRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Purged {} sent emails older than {} days", deleted, retentionDays);
+    }
+
+    private void drain(Lane lane) {
+        lane.drainRequested.set(false);
+        try {
+            List<EmailMessage> batch;
+            do {
+                batch = claimBatch(lane.priority);
+                List<List<EmailMessage>> chunks = new ArrayList<>();
+                for (int from = 0; from < batch.size(); from += messagesPerConnection) {
+                    chunks.add(batch.subList(from, Math.min(from + messagesPerConnection, batch.size())));
+                }
+
+                if (lane.priority == EmailPriority.HIGH) {
+                    chunks.forEach(this::send);
+                } else {
+                    CompletableFuture.allOf(chunks.stream()
+                                    .map(chunk -> CompletableFuture.runAsync(() -> send(chunk), workers))
+                                    .toArray(CompletableFuture[]::new))
+                            .join();
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Email drain of the {} lane failed", lane.priority, e);
+        }
+    }
+
+    private List<EmailMessage> claimBatch(EmailPriority priority) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailMessage> messages = messageRepository.findClaimable(
+                    priority, now, now.minus(staleClaimAfter), PageRequest.of(0, batchSize));
+            for (EmailMessage message : messages) {
+                message.setStatus(OutboxStatus.PROCESSING);
+                message.setClaimedAt(now);
+            }
+            return messageRepository.saveAll(messages);
+        });
+    }
+
+    // Sends the chunk over one connection; JavaMailSender reports per-message failures of a multi-message send
+    private void send(List<EmailMessage> chunk) {
+        Map<MimeMessage, EmailMessage> mimeMessages = new IdentityHashMap<>();
+        List<EmailMessage> invalid = new ArrayList<>();
+        for (EmailMessage message : chunk) {
+            try {
+                mimeMessages.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                // A malformed address does not get better with retries
+                message.setLastError(abbreviate(e.toString()));
+                invalid.add(message);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        if (!mimeMessages.isEmpty()) {
+            try {
+                mailSender.send(mimeMessages.keySet().toArray(MimeMessage[]::new));
+                connectionBatches.record(mimeMessages.size());
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages().isEmpty() ? allFailed(mimeMessages, e) : e.getFailedMessages();
+            } catch (MailException e) {
+                failures = allFailed(mimeMessages, e);
+            }
+        }
+
+        record(mimeMessages, failures, invalid);
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromAddress);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        return mimeMessage;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailMessage> mimeMessages, Exception error) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        mimeMessages.keySet().forEach(mimeMessage -> failures.put(mimeMessage, error));
+        return failures;
+    }
+
+    private void record(
+            Map<MimeMessage, EmailMessage> mimeMessages, Map<Object, Exception> failures, List<EmailMessage> invalid) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailMessage> updated = new ArrayList<>();
+        List<EmailMessage> dead = new ArrayList<>(invalid);
+
+        mimeMessages.forEach((mimeMessage, message) -> {
+            Exception error = failures.get(mimeMessage);
+            if (error == null) {
+                message.setStatus(OutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                if (message.getSensitive()) {
+                    message.setBody("");
+                }
+                updated.add(message);
+                Timer.builder("auction.mail.delivery.lag")
+                        .description("Time from enqueue to sending of an email")
+                        .tag("priority", message.getPriority().name())
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry)
+                        .record(Duration.between(message.getCreatedAt(), now));
+                count(message, "sent");
+                return;
+            }
+
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(abbreviate(error.toString()));
+            if (attempts >= maxAttempts) {
+                dead.add(message);
+                return;
+            }
+            long delayMs = Math.min(backoffBase.toMillis() << Math.min(attempts - 1, 20), backoffMax.toMillis());
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(now.plus(Duration.ofMillis(delayMs)));
+            updated.add(message);
+            log.warn(
+                    "Email {} to {} failed, retry {} in {} ms: {}",
+                    message.getId(),
+                    message.getRecipient(),
+                    attempts,
+                    delayMs,
+                    error.getMessage());
+            count(message, "retry");
+        });
+
+        for (EmailMessage message : dead) {
+            log.error(
+                    "Email {} to {} failed permanently after {} attempts: {}",
+                    message.getId(),
+                    message.getRecipient(),
+                    message.getAttempts(),
+                    message.getLastError());
+            count(message, "dead");
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                messageRepository.saveAll(updated);
+                deadLetterRepository.saveAll(dead.stream()
+                        .map(message -> EmailDeadLetter.builder()
+                                .recipient(message.getRecipient())
+                                .subject(message.getSubject())
+                                .priority(message.getPriority())
+                                .attempts(message.getAttempts())
+                                .lastError(message.getLastError())
+                                .queuedAt(message.getCreatedAt())
+                                .failedAt(now)
+                                .build())
+                        .toList());
+                messageRepository.deleteAllByIdInBatch(
+                        dead.stream().map(EmailMessage::getId).toList());
+            });
+        } catch (Exception e) {
+            // The claims go stale and the emails are picked up again later
+            log.error("Failed to record the outcome of {} emails", mimeMessages.size() + invalid.size(), e);
+        }
+    }
+
+    private void refreshBacklog() {
+        try {
+            backlog.set(messageRepository.countByStatus(OutboxStatus.PENDING)
+                    + messageRepository.countByStatus(OutboxStatus.PROCESSING));
+        } catch (Exception e) {
+            log.warn("Failed to refresh email backlog", e);
+        }
+    }
+
+    private void count(EmailMessage message, String outcome) {
+        Counter.builder("auction.mail.messages")
+                .description("Email send attempts by outcome")
+                .tag("priority", message.getPriority().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Lane lane : lanes.values()) {
+            lane.dispatcher.shutdown();
+        }
+        for (Lane lane : lanes.values()) {
+            if (!lane.dispatcher.awaitTermination(10, TimeUnit.SECONDS)) {
+                lane.dispatcher.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package wnc.auction.backend.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Renders the email templates in {@code templates/emails}. Each template is rendered by Thymeleaf once per locale
+ * and combination of its {@code th:if} flags, with a placeholder for every other variable; an email then only
+ * needs the recipient's values, HTML-escaped, put into the cached output. All templates are compiled for the
+ * supported locales at startup. Templates that iterate over a list ({@code th:each}) go through Thymeleaf every
+ * time, from its cache of parsed templates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailTemplates {
+
+    static final List<Locale> LOCALES = List.of(Locale.ENGLISH, Locale.of("vi", "VN"));
+
+    private static final String LOCATION = "classpath:templates/emails/*.html";
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{(\\w+)");
+    private static final Pattern FLAG = Pattern.compile("th:(?:if|unless)=\"\\$\\{(\\w+)}\"");
+    private static final Pattern UNESCAPED = Pattern.compile("th:utext=\"([^\"]*)\"");
+
+    private final SpringTemplateEngine templateEngine;
+    private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
+
+    // Variables of each template; flags are rendered into the cached output, the others substituted
+    private final Map<String, Variables> variables = new ConcurrentHashMap<>();
+    private final Map<Key, Compiled> compiled = new ConcurrentHashMap<>();
+    private final Map<SubjectKey, Subject> subjects = new ConcurrentHashMap<>();
+
+    private record Variables(Set<String> substituted, Set<String> unescaped, List<String> flags, boolean iterates) {}
+
+    private record Key(String template, Locale locale, Map<String, Boolean> flags) {}
+
+    private record SubjectKey(String code, Locale locale) {}
+
+    private record Subject(String message, MessageFormat format) {}
+
+    // Output is literals[0] + value of names[0] + literals[1] + ... + literals[n]
+    private record Compiled(String[] literals, String[] names) {}
+
+    @PostConstruct
+    void preload() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+        for (Resource resource : resources) {
+            String template =
+                    resource.getFilename().substring(0, resource.getFilename().length() - ".html".length());
+            Variables vars = scan(resource.getContentAsString(StandardCharsets.UTF_8));
+            variables.put(template, vars);
+            if (vars.iterates()) {
+                continue;
+            }
+            for (Locale locale : LOCALES) {
+                for (Map<String, Boolean> flags : combinations(vars.flags())) {
+                    Key key = new Key(template, locale, flags);
+                    compiled.put(key, compile(key, vars));
+                }
+            }
+        }
+        log.info("Compiled {} email template variants from {} templates", compiled.size(), resources.length);
+    }
+
+    /**
+     * Renders a template; values of text variables may be null, which renders as empty text.
+     */
+    public String render(String template, Locale locale, Map<String, ?> values) {
+        Variables vars = variables.get(template);
+        if (vars == null || vars.iterates()) {
+            lookup(template, "uncached");
+            Context context = new Context(locale);
+            context.setVariables(new HashMap<>(values));
+            return templateEngine.process(template, context);
+        }
+
+        Map<String, Boolean> flags = new HashMap<>();
+        for (String flag : vars.flags()) {
+            flags.put(flag, Boolean.TRUE.equals(values.get(flag)));
+        }
+        Key key = new Key(template, locale, Map.copyOf(flags));
+        Compiled entry = compiled.get(key);
+        lookup(template, entry != null ? "hit" : "miss");
+        if (entry == null) {
+            entry = compiled.computeIfAbsent(key, k -> compile(k, vars));
+        }
+
+        StringBuilder html = new StringBuilder(entry.literals()[0]);
+        for (int i = 0; i < entry.names().length; i++) {
+            String name = entry.names()[i];
+            Object value = values.get(name);
+            if (value != null) {
+                // As Thymeleaf does: escaped, except where the template uses th:utext
+                html.append(
+                        vars.unescaped().contains(name)
+                                ? value.toString()
+                                : HtmlEscape.escapeHtml4Xml(value.toString()));
+            }
+            html.append(entry.literals()[i + 1]);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Resolves a subject from the message bundles; the pattern is looked up and parsed once per locale.
+     */
+    public String subject(String code, Locale locale, Object... args) {
+        Subject subject = subjects.computeIfAbsent(new SubjectKey(code, locale), key -> {
+            String message = messageSource.getMessage(code, null, locale);
+            return new Subject(message, new MessageFormat(message, locale));
+        });
+        // Like the message source, the pattern is only applied when there are arguments
+        if (args.length == 0) {
+            return subject.message();
+        }
+        synchronized (subject.format()) {
+            return subject.format().format(args);
+        }
+    }
+
+    private Compiled compile(Key key, Variables vars) {
+        Context context = new Context(key.locale());
+        context.setVariables(new HashMap<>(key.flags()));
+        for (String name : vars.substituted()) {
+            context.setVariable(name, placeholder(name));
+        }
+        String html = templateEngine.process(key.template(), context);
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int next = -1;
+            String name = null;
+            for (String candidate : vars.substituted()) {
+                int index = html.indexOf(placeholder(candidate), start);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    name = candidate;
+                }
+            }
+            if (name == null) {
+                break;
+            }
+            literals.add(html.substring(start, next));
+            names.add(name);
+            start = next + placeholder(name).length();
+        }
+        literals.add(html.substring(start));
+        return new Compiled(literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    // Letters and braces only, so it comes out of HTML escaping and message formatting unchanged
+    private static String placeholder(String name) {
+        return "{{" + name + "}}";
+    }
+
+    private static Variables scan(String source) {
+        Set<String> names = new LinkedHashSet<>();
+        Matcher variable = VARIABLE.matcher(source);
+        while (variable.find()) {
+            names.add(variable.group(1));
+        }
+        Set<String> flags = new LinkedHashSet<>();
+        Matcher flag = FLAG.matcher(source);
+        while (flag.find()) {
+            flags.add(flag.group(1));
+        }
+        names.removeAll(flags);
+        Set<String> unescaped = new LinkedHashSet<>();
+        Matcher utext = UNESCAPED.matcher(source);
+        while (utext.find()) {
+            Matcher inner = VARIABLE.matcher(utext.group(1));
+            while (inner.find()) {
+                unescaped.add(inner.group(1));
+            }
+        }
+        return new Variables(names, unescaped, List.copyOf(flags), source.contains("th:each"));
+    }
+
+    private static List<Map<String, Boolean>> combinations(List<String> flags) {
+        List<Map<String, Boolean>> combinations = new ArrayList<>();
+        for (int bits = 0; bits < 1 << flags.size(); bits++) {
+            Map<String, Boolean> combination = new HashMap<>();
+            for (int i = 0; i < flags.size(); i++) {
+                combination.put(flags.get(i), (bits & 1 << i) != 0);
+            }
+            combinations.add(Map.copyOf(combination));
+        }
+        return combinations;
+    }
+
+    private void lookup(String template, String result) {
+        Counter.builder("auction.mail.template.cache")
+                .description("Email renders served from the compiled template cache")
+                .tag("template", template)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,19 @@
+package wnc.auction.backend.mapper;
+
+import lombok.experimental.UtilityClass;
+import wnc.auction.backend.dto.model.InboxNotificationDto;
+import wnc.auction.backend.model.InboxNotification;
+
+@UtilityClass
+public class InboxNotificationMapper {
+
+    public static InboxNotificationDto toDto(InboxNotification notification) {
+        return InboxNotificationDto.builder()
+                .id(notification.getId())
+                .type(notification.getType())
+                .data(notification.getPayload())
+                .isRead(notification.getIsRead())
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
+}
@@ -31,6 +31,7 @@ public class UserMapper {
                 .positiveRatings(user.getPositiveRatings())
                 .negativeRatings(user.getNegativeRatings())
                 .ratingPercentage(user.getRatingPercentage())
+                .bidEmailDigest(user.getBidEmailDigest())
                 .createdAt(user.getCreatedAt())
                 .build();
     }
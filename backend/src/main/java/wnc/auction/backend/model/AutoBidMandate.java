@@ -0,0 +1,41 @@
+package wnc.auction.backend.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+// Standing auto-bid instruction: one row per (product, user), holding the user's current maximum
+@Entity
+@Table(name = "auto_bid_mandates", uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "user_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class AutoBidMandate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private BigDecimal maxAmount;
+
+    // When the current maximum was set; earlier mandates win ties
+    @Column(nullable = false)
+    private LocalDateTime maxSetAt;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,48 @@
+package wnc.auction.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+
+/**
+ * Email that could not be delivered within the retry budget, kept for inspection. The body is not kept, since it
+ * may hold a one-time password or a new password.
+ */
+@Entity
+@Table(name = "email_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class EmailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EmailPriority priority;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    // When the email was first queued
+    @Column(nullable = false)
+    private LocalDateTime queuedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,72 @@
+package wnc.auction.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+
+@Entity
+@Table(
+        name = "email_outbox",
+        indexes = {
+            @Index(name = "idx_email_outbox_claim", columnList = "status, priority, next_attempt_at"),
+            @Index(name = "idx_email_outbox_sent_at", columnList = "sent_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "body")
+public class EmailMessage {
+
+    // Sequence ids let a bulk enqueue insert its emails in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Rendered HTML
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EmailPriority priority;
+
+    // Body holds a one-time password or a new password; it is blanked once the email is sent
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean sensitive = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
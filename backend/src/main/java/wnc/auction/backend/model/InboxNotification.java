@@ -0,0 +1,43 @@
+package wnc.auction.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Entity
+@Table(
+        name = "inbox_notifications",
+        indexes = {
+            @Index(name = "idx_inbox_user_id", columnList = "user_id, id"),
+            @Index(name = "idx_inbox_user_unread", columnList = "user_id, is_read")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class InboxNotification {
+
+    // Sequence ids let the inbox writer insert a whole batch in one JDBC round trip
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inbox_notification_seq")
+    @SequenceGenerator(name = "inbox_notification_seq", sequenceName = "inbox_notifications_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "is_read", nullable = false)
+    @Builder.Default
+    private Boolean isRead = false;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,68 @@
+package wnc.auction.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+            @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+            @Index(name = "idx_outbox_coalesce_key", columnList = "coalesce_key")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType type;
+
+    // Product the side effect belongs to
+    private Long aggregateId;
+
+    // Same key = same side effect, enqueued at most once
+    @Column(unique = true)
+    private String dedupKey;
+
+    // A pending event with the same key absorbs later ones instead of a new event being added
+    @Column(name = "coalesce_key")
+    private String coalesceKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime processedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
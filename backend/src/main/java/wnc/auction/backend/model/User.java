@@ -70,6 +70,11 @@ public class User {
     @Builder.Default
     private String preferredLanguage = "en"; // 'vi' for Vietnamese, 'en' for English
 
+    // Outbid and new-bid emails are collected into an hourly digest instead of sent one by one
+    @Column(name = "bid_email_digest", nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean bidEmailDigest = false;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -0,0 +1,7 @@
+package wnc.auction.backend.model.enumeration;
+
+public enum EmailPriority {
+    // One-time passwords and other mail a user is waiting for
+    HIGH,
+    NORMAL
+}
@@ -0,0 +1,16 @@
+package wnc.auction.backend.model.enumeration;
+
+public enum OutboxEventType {
+    BID_PLACED_EMAIL,
+    OUTBID_EMAIL,
+    AUCTION_ENDED_EMAIL,
+    // One event for all losing bidders of an auction
+    AUCTION_ENDED_PARTICIPANTS_EMAIL,
+    AUCTION_ENDED_NOTIFICATION,
+    AUCTION_CLOSED_BROADCAST,
+    BIDDER_BLOCKED_EMAIL,
+    // Outbid and new-bid emails of a user who opted into the hourly digest
+    BID_DIGEST_EMAIL,
+    AUCTION_RESCHEDULE,
+    AUCTION_UNSCHEDULE
+}
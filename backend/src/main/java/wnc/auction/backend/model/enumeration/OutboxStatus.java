@@ -0,0 +1,8 @@
+package wnc.auction.backend.model.enumeration;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package wnc.auction.backend.model.enumeration;
+
+// Topics a multiplexed notification stream can subscribe to
+public enum StreamTopic {
+    PRODUCT,
+    CHAT
+}
@@ -0,0 +1,151 @@
+package wnc.auction.backend.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.cache.UserProfileCache;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
+import wnc.auction.backend.repository.OutboxEventRepository;
+import wnc.auction.backend.repository.projection.UserProfile;
+
+/**
+ * Keeps bidding wars from flooding inboxes. Outbid and new-bid emails for the same user and product are held in
+ * the outbox for {@code coalesce-window-seconds}; later ones replace the held one, so a single email with the
+ * latest state goes out. When the held email is due and its user opted into the digest, it is merged into the
+ * user's digest instead, which is sent at the top of the next hour with the latest state of each product.
+ *
+ * <p>Held events are due in the future, so the relay picks them up on its first poll after they fall due rather
+ * than being woken up on commit.
+ */
+@Component
+public class BidEmailCoalescer {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserProfileCache userProfileCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration window;
+
+    public BidEmailCoalescer(
+            OutboxEventRepository outboxEventRepository,
+            UserProfileCache userProfileCache,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.notification.email.coalesce-window-seconds:30}") long windowSeconds) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.userProfileCache = userProfileCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.window = Duration.ofSeconds(windowSeconds);
+    }
+
+    /**
+     * Publishes an outbid or new-bid email in the caller's transaction, replacing the one still held for the same
+     * user and product.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, Long userId, Long productId, Map<String, Object> payload) {
+        ObjectNode latest = objectMapper.valueToTree(payload);
+        String coalesceKey = type.name() + ":" + userId + ":" + productId;
+        if (coalesce(type, productId, coalesceKey, LocalDateTime.now().plus(window), held -> latest)) {
+            suppressed(type, "coalesced");
+        }
+    }
+
+    /**
+     * Called when a held email is due. Returns true if it went into the user's digest and must not be sent.
+     */
+    public boolean divertToDigest(OutboxEvent event, JsonNode payload) {
+        long userId = payload.get("userId").asLong();
+        if (!userProfileCache.get(userId).map(UserProfile::bidEmailDigest).orElse(false)) {
+            return false;
+        }
+
+        String item = payload.get("productId").asText() + ":" + event.getType().name();
+        ObjectNode entry = ((ObjectNode) payload).deepCopy();
+        entry.put("type", event.getType().name());
+        transactionTemplate.executeWithoutResult(status -> coalesce(
+                OutboxEventType.BID_DIGEST_EMAIL,
+                null,
+                "bid-digest:" + userId,
+                LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1),
+                digest -> {
+                    digest.put("userId", userId);
+                    ObjectNode items =
+                            digest.has("items") ? (ObjectNode) digest.get("items") : digest.putObject("items");
+                    items.set(item, entry);
+                    return digest;
+                }));
+        suppressed(event.getType(), "digest");
+        return true;
+    }
+
+    // Merges into the pending event with the same key, which keeps its due time; returns true if there was one.
+    // Two transactions adding the first event for a key at once both insert, which only costs the coalescing.
+    private boolean coalesce(
+            OutboxEventType type,
+            Long aggregateId,
+            String coalesceKey,
+            LocalDateTime deliverAt,
+            UnaryOperator<ObjectNode> merge) {
+        List<OutboxEvent> pending = outboxEventRepository.findPendingByCoalesceKey(coalesceKey);
+        if (!pending.isEmpty()) {
+            OutboxEvent event = pending.getFirst();
+            event.setPayload(toJson(merge.apply(readObject(event.getPayload()))));
+            outboxEventRepository.save(event);
+            return true;
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .coalesceKey(coalesceKey)
+                .payload(toJson(merge.apply(objectMapper.createObjectNode())))
+                .nextAttemptAt(deliverAt)
+                .build());
+        return false;
+    }
+
+    private ObjectNode readObject(String payload) {
+        try {
+            return (ObjectNode) objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload is not valid JSON", e);
+        }
+    }
+
+    private String toJson(ObjectNode payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+
+    private void suppressed(OutboxEventType type, String reason) {
+        Counter.builder("auction.mail.suppressed")
+                .description("Bid emails not sent on their own, replaced by a later one or moved into a digest")
+                .tag("type", type.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,114 @@
+package wnc.auction.backend.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
+import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.repository.ProductRepository;
+import wnc.auction.backend.service.AuctionSchedulerService;
+import wnc.auction.backend.service.EmailService;
+import wnc.auction.backend.service.NotificationService;
+
+/**
+ * Performs the side effect described by an outbox event. Any exception marks the attempt as failed and the
+ * event is retried with backoff.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEventHandler {
+
+    private final ObjectMapper objectMapper;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final AuctionSchedulerService auctionSchedulerService;
+    private final ProductRepository productRepository;
+    private final BidEmailCoalescer bidEmailCoalescer;
+
+    public void handle(OutboxEvent event) throws JsonProcessingException {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+
+        switch (event.getType()) {
+            case BID_PLACED_EMAIL -> {
+                if (!bidEmailCoalescer.divertToDigest(event, payload)) {
+                    emailService.sendBidNotification(
+                            payload.get("userId").asLong(),
+                            payload.get("productId").asLong(),
+                            payload.get("productName").asText(),
+                            payload.get("bidderName").asText(),
+                            payload.get("amount").asText());
+                }
+            }
+            case OUTBID_EMAIL -> {
+                if (!bidEmailCoalescer.divertToDigest(event, payload)) {
+                    emailService.sendOutbidNotification(
+                            payload.get("userId").asLong(),
+                            payload.get("productId").asLong(),
+                            payload.get("productName").asText(),
+                            payload.get("amount").asText());
+                }
+            }
+            case BID_DIGEST_EMAIL -> {
+                List<EmailService.BidDigestItem> items = new ArrayList<>();
+                payload.get("items")
+                        .forEach(item -> items.add(new EmailService.BidDigestItem(
+                                item.get("productId").asLong(),
+                                item.get("productName").asText(),
+                                item.get("amount").asText(),
+                                OutboxEventType.OUTBID_EMAIL
+                                        .name()
+                                        .equals(item.get("type").asText()))));
+                emailService.sendBidDigest(payload.get("userId").asLong(), items);
+            }
+            case AUCTION_ENDED_EMAIL ->
+                emailService.sendAuctionEndedNotification(
+                        payload.get("userId").asLong(),
+                        payload.get("productId").asLong(),
+                        payload.get("productName").asText(),
+                        payload.get("winner").asBoolean(),
+                        payload.get("finalAmount").asText());
+            case AUCTION_ENDED_PARTICIPANTS_EMAIL -> {
+                List<Long> excludedUserIds = new ArrayList<>();
+                payload.get("excludedUserIds").forEach(id -> excludedUserIds.add(id.asLong()));
+                emailService.sendAuctionEndedToParticipants(
+                        payload.get("productId").asLong(),
+                        payload.get("productName").asText(),
+                        payload.get("finalAmount").asText(),
+                        excludedUserIds);
+            }
+            case AUCTION_ENDED_NOTIFICATION ->
+                notificationService.notifyAuctionEnded(
+                        payload.get("userId").asLong(),
+                        payload.get("productId").asLong(),
+                        payload.get("productName").asText(),
+                        payload.get("winner").asBoolean(),
+                        new BigDecimal(payload.get("finalAmount").asText()));
+            case AUCTION_CLOSED_BROADCAST ->
+                notificationService.broadcastAuctionEnded(
+                        payload.get("productId").asLong(),
+                        payload.get("productName").asText(),
+                        payload.get("winnerName").asText(),
+                        new BigDecimal(payload.get("finalAmount").asText()));
+            case BIDDER_BLOCKED_EMAIL ->
+                emailService.sendBidderBlockedNotification(
+                        payload.get("userId").asLong(),
+                        payload.get("productId").asLong(),
+                        payload.get("productName").asText(),
+                        payload.get("sellerName").asText());
+            // Use the end time as stored now, so late or repeated deliveries cannot move the close backwards
+            case AUCTION_RESCHEDULE ->
+                productRepository
+                        .findById(event.getAggregateId())
+                        .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+                        .ifPresent(product ->
+                                auctionSchedulerService.rescheduleAuctionClose(product.getId(), product.getEndTime()));
+            case AUCTION_UNSCHEDULE -> auctionSchedulerService.unscheduleAuctionClose(event.getAggregateId());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package wnc.auction.backend.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
+import wnc.auction.backend.repository.OutboxEventRepository;
+
+/**
+ * Records side effects (emails, notifications, scheduler changes) in the outbox table as part of the caller's
+ * transaction. Nothing is delivered until that transaction commits; the {@link OutboxRelay} is woken up right
+ * after the commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, Long aggregateId, String dedupKey, Map<String, Object> payload) {
+        if (dedupKey != null && outboxEventRepository.existsByDedupKey(dedupKey)) {
+            log.debug("Skipping duplicate outbox event {}", dedupKey);
+            return;
+        }
+
+        OutboxEvent event = OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .dedupKey(dedupKey)
+                .payload(toJson(payload))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(event);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package wnc.auction.backend.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+import wnc.auction.backend.repository.OutboxEventRepository;
+
+/**
+ * Delivers outbox events after their transaction commits.
+ *
+ * <p>A single dispatcher thread claims due events in batches ({@code FOR UPDATE SKIP LOCKED}, so several nodes
+ * can relay concurrently) and hands them to a worker pool. Failed deliveries are retried with exponential
+ * backoff until {@code max-attempts}, then parked as {@link OutboxStatus#FAILED}. The dispatcher is woken up
+ * after each commit that published events, and polled periodically to pick up retries and abandoned claims.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventHandler outboxEventHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor workers;
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration staleClaimAfter;
+    private final int retentionDays;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Timer deliveryLag;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxEventHandler outboxEventHandler,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("outboxExecutor") TaskExecutor workers,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:100}") int batchSize,
+            @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.outbox.backoff-base-ms:2000}") long backoffBaseMs,
+            @Value("${app.outbox.backoff-max-ms:600000}") long backoffMaxMs,
+            @Value("${app.outbox.stale-claim-seconds:300}") long staleClaimSeconds,
+            @Value("${app.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventHandler = outboxEventHandler;
+        this.transactionTemplate = transactionTemplate;
+        this.workers = workers;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+        this.staleClaimAfter = Duration.ofSeconds(staleClaimSeconds);
+        this.retentionDays = retentionDays;
+
+        Gauge.builder("auction.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("auction.outbox.lag.seconds", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("auction.outbox.delivery.lag")
+                .description("Time from enqueue to successful delivery of an outbox event")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Coalesces concurrent wake-ups into at most one pending drain
+    public void wakeUp() {
+        if (drainRequested.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        refreshBacklogMetrics();
+        wakeUp();
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeDelivered() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Purged {} delivered outbox events older than {} days", deleted, retentionDays);
+    }
+
+    private void drain() {
+        drainRequested.set(false);
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = claimBatch();
+                CompletableFuture.allOf(batch.stream()
+                                .map(event -> CompletableFuture.runAsync(() -> deliver(event), workers))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox drain failed", e);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events =
+                    outboxEventRepository.findClaimable(now, now.minus(staleClaimAfter), PageRequest.of(0, batchSize));
+            for (OutboxEvent event : events) {
+                event.setStatus(OutboxStatus.PROCESSING);
+                event.setClaimedAt(now);
+            }
+            return outboxEventRepository.saveAll(events);
+        });
+    }
+
+    private void deliver(OutboxEvent event) {
+        try {
+            outboxEventHandler.handle(event);
+
+            event.setStatus(OutboxStatus.SENT);
+            event.setProcessedAt(LocalDateTime.now());
+            event.setLastError(null);
+            outboxEventRepository.save(event);
+
+            deliveryLag.record(Duration.between(event.getCreatedAt(), event.getProcessedAt()));
+            count(event, "sent");
+        } catch (Exception e) {
+            markFailed(event, e);
+        }
+    }
+
+    private void markFailed(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(error.toString()));
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            log.error(
+                    "Outbox event {} ({}) failed permanently after {} attempts",
+                    event.getId(),
+                    event.getType(),
+                    attempts,
+                    error);
+            count(event, "failed");
+        } else {
+            long delayMs = Math.min(backoffBase.toMillis() << Math.min(attempts - 1, 20), backoffMax.toMillis());
+            event.setStatus(OutboxStatus.PENDING);
+            event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
+            log.warn(
+                    "Outbox event {} ({}) failed, retry {} in {} ms: {}",
+                    event.getId(),
+                    event.getType(),
+                    attempts,
+                    delayMs,
+                    error.getMessage());
+            count(event, "retry");
+        }
+
+        try {
+            outboxEventRepository.save(event);
+        } catch (Exception e) {
+            // The claim goes stale and the event is picked up again later
+            log.error("Failed to record outcome of outbox event {}", event.getId(), e);
+        }
+    }
+
+    private void refreshBacklogMetrics() {
+        try {
+            backlog.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING)
+                    + outboxEventRepository.countByStatus(OutboxStatus.PROCESSING));
+            LocalDateTime oldest = outboxEventRepository.findOldestUndeliveredCreatedAt();
+            oldestAgeSeconds.set(
+                    oldest == null
+                            ? 0
+                            : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox metrics", e);
+        }
+    }
+
+    private void count(OutboxEvent event, String outcome) {
+        Counter.builder("auction.outbox.events")
+                .description("Outbox delivery attempts by outcome")
+                .tag("type", event.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdown();
+        if (!dispatcher.awaitTermination(10, TimeUnit.SECONDS)) {
+            dispatcher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package wnc.auction.backend.realtime;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.CloseReason.CloseCodes;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import wnc.auction.backend.realtime.LeaderboardSocketHub.Channel;
+import wnc.auction.backend.realtime.LeaderboardSocketHub.Update;
+
+/**
+ * One leaderboard WebSocket, written by a dedicated virtual thread. The thread is woken on every update of the
+ * product and sends the latest state only: the shared delta when the socket is up to date, otherwise a delta
+ * against the state it last sent. Nothing is queued per socket.
+ */
+@Slf4j
+final class LeaderboardSocket {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Session session;
+    private final long productId;
+    private final LeaderboardSocketHub hub;
+    private final Semaphore updated = new Semaphore(0);
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread writer;
+
+    LeaderboardSocket(Session session, long productId, LeaderboardSocketHub hub) {
+        this.session = session;
+        this.productId = productId;
+        this.hub = hub;
+    }
+
+    long productId() {
+        return productId;
+    }
+
+    void start(Channel channel) {
+        writer = Thread.ofVirtual().name("ws-leaderboard-" + productId).start(() -> run(channel));
+    }
+
+    void signal() {
+        updated.release();
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true) && writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private void run(Channel channel) {
+        try {
+            if (channel.latest() == null) {
+                LeaderboardState loaded = hub.load(productId);
+                if (loaded == null) {
+                    session.close(new CloseReason(CloseCodes.CANNOT_ACCEPT, "Product not found"));
+                    return;
+                }
+                channel.initialize(loaded);
+            }
+
+            LeaderboardState sent = null;
+            while (!closed.get() && session.isOpen()) {
+                Update update = channel.latest();
+                if (update.state() == sent) {
+                    // Idle sockets are pinged so that proxies keep them open
+                    if (!updated.tryAcquire(hub.pingIntervalNanos(), TimeUnit.NANOSECONDS)) {
+                        session.getBasicRemote().sendPing(EMPTY.duplicate());
+                    }
+                    updated.drainPermits();
+                    continue;
+                }
+
+                byte[] frame = sent == null
+                        ? update.state().encodeSnapshot()
+                        : update.previous() == sent
+                                ? update.delta()
+                                : update.state().encodeDelta(sent);
+                if (frame != null) {
+                    session.getBasicRemote().sendBinary(ByteBuffer.wrap(frame));
+                    hub.sent(sent == null, frame.length);
+                }
+                sent = update.state();
+
+                if (sent.closed()) {
+                    session.close(new CloseReason(CloseCodes.NORMAL_CLOSURE, "Auction closed"));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        } catch (IOException | RuntimeException e) {
+            log.debug("Leaderboard socket for product {} failed", productId, e);
+            closeSession();
+        } finally {
+            closed.set(true);
+            hub.leave(this);
+        }
+    }
+
+    private void closeSession() {
+        try {
+            session.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package wnc.auction.backend.realtime;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.CloseReason.CloseCodes;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import wnc.auction.backend.repository.TokenBlacklistRepository;
+import wnc.auction.backend.security.JwtTokenProvider;
+
+/**
+ * {@code /ws/products/{productId}/leaderboard}: binary leaderboard stream, see {@link LeaderboardState} for the
+ * format. Browsers cannot set headers on a WebSocket handshake, so the access token is passed as the
+ * {@code access_token} query parameter and checked here; the path is open in the HTTP security chain.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardSocketEndpoint extends Endpoint {
+
+    public static final String PATH = "/ws/products/{productId}/leaderboard";
+
+    private final JwtTokenProvider tokenProvider;
+    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final LeaderboardSocketHub hub;
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        List<String> tokens = session.getRequestParameterMap().get("access_token");
+        String token = tokens == null || tokens.isEmpty() ? null : tokens.get(0);
+        if (!StringUtils.hasText(token)
+                || !tokenProvider.validateToken(token)
+                || tokenBlacklistRepository.existsByToken(token)) {
+            close(session, CloseCodes.VIOLATED_POLICY, "Unauthorized");
+            return;
+        }
+
+        long productId;
+        try {
+            productId = Long.parseLong(session.getPathParameters().get("productId"));
+        } catch (NumberFormatException e) {
+            close(session, CloseCodes.CANNOT_ACCEPT, "Invalid product");
+            return;
+        }
+
+        hub.open(session, productId);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        hub.close(session);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("Leaderboard socket error", error);
+        hub.close(session);
+    }
+
+    private static void close(Session session, CloseCodes code, String reason) {
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+}
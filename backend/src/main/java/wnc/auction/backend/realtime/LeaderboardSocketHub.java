@@ -0,0 +1,252 @@
+package wnc.auction.backend.realtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.dto.model.BidHistoryDto;
+import wnc.auction.backend.engine.BidLeaderboard;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
+import wnc.auction.backend.repository.ProductRepository;
+
+/**
+ * Binary leaderboard channel for WebSocket clients, the compact alternative to the {@code leaderboard_update} SSE
+ * event. Each node keeps the latest {@link LeaderboardState} of the products its sockets watch, fed by the same
+ * broadcast as the SSE streams, and encodes the delta to the previous state once per update; sockets that are
+ * behind get a delta computed against what they last received instead, so a slow client skips intermediate
+ * states rather than queueing them.
+ */
+@Component
+@Slf4j
+public class LeaderboardSocketHub {
+
+    static final int LEADERBOARD_SIZE = 10;
+    private static final String SOCKET = LeaderboardSocket.class.getName();
+
+    private final BidLeaderboard bidLeaderboard;
+    private final ProductRepository productRepository;
+    private final SseBroadcaster broadcaster;
+    private final WatcherPresence watcherPresence;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final long pingIntervalNanos;
+    private final long sendTimeoutMillis;
+    private final Counter snapshotBytes;
+    private final Counter deltaBytes;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger openSockets = new AtomicInteger();
+
+    public LeaderboardSocketHub(
+            BidLeaderboard bidLeaderboard,
+            ProductRepository productRepository,
+            SseBroadcaster broadcaster,
+            WatcherPresence watcherPresence,
+            ObjectMapper objectMapper,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.notification.heartbeat.interval-seconds:30}") long pingIntervalSeconds,
+            @Value("${app.notification.websocket.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.bidLeaderboard = bidLeaderboard;
+        this.productRepository = productRepository;
+        this.broadcaster = broadcaster;
+        this.watcherPresence = watcherPresence;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.pingIntervalNanos = Duration.ofSeconds(pingIntervalSeconds).toNanos();
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.snapshotBytes = Counter.builder("auction.ws.leaderboard.bytes")
+                .description("Bytes sent to leaderboard WebSocket clients")
+                .tag("type", "snapshot")
+                .register(meterRegistry);
+        this.deltaBytes = Counter.builder("auction.ws.leaderboard.bytes")
+                .description("Bytes sent to leaderboard WebSocket clients")
+                .tag("type", "delta")
+                .register(meterRegistry);
+        Gauge.builder("auction.ws.leaderboard.sessions", openSockets, AtomicInteger::get)
+                .description("Open leaderboard WebSocket sessions on this node")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerLocalDelivery() {
+        broadcaster.register(this::deliver);
+    }
+
+    /**
+     * Starts streaming the leaderboard of a product to an authenticated socket.
+     */
+    public void open(Session session, long productId) {
+        session.getUserProperties().put("org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT", sendTimeoutMillis);
+
+        LeaderboardSocket socket = new LeaderboardSocket(session, productId, this);
+        Channel channel = channels.compute(productId, (id, existing) -> {
+            Channel joined = existing != null ? existing : new Channel();
+            joined.sockets.add(socket);
+            return joined;
+        });
+        session.getUserProperties().put(SOCKET, socket);
+        openSockets.incrementAndGet();
+        watcherPresence.watch(productId);
+        socket.start(channel);
+    }
+
+    public void close(Session session) {
+        if (session.getUserProperties().get(SOCKET) instanceof LeaderboardSocket socket) {
+            socket.close();
+        }
+    }
+
+    long pingIntervalNanos() {
+        return pingIntervalNanos;
+    }
+
+    void sent(boolean snapshot, int bytes) {
+        (snapshot ? snapshotBytes : deltaBytes).increment(bytes);
+    }
+
+    void leave(LeaderboardSocket socket) {
+        openSockets.decrementAndGet();
+        watcherPresence.unwatch(socket.productId());
+        channels.computeIfPresent(socket.productId(), (id, channel) -> {
+            channel.sockets.remove(socket);
+            return channel.sockets.isEmpty() ? null : channel;
+        });
+    }
+
+    // Current state from the database and the materialized leaderboard, or null if the product does not exist
+    LeaderboardState load(long productId) {
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            return null;
+        }
+
+        List<LeaderboardState.Row> rows = new ArrayList<>();
+        for (BidHistoryDto entry : bidLeaderboard.top(productId, 0, LEADERBOARD_SIZE)) {
+            rows.add(new LeaderboardState.Row(
+                    entry.getUserId(), minorUnits(entry.getAmount()), entry.getMaskedUserName()));
+        }
+        return new LeaderboardState(
+                minorUnits(product.getCurrentPrice()),
+                epochMillis(product.getEndTime()),
+                product.getStatus() != ProductStatus.ACTIVE,
+                rows);
+    }
+
+    // Only products watched over a socket on this node are decoded
+    private void deliver(Scope scope, long key, String event, long id, String json) {
+        if (scope != Scope.PRODUCT) {
+            return;
+        }
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            return;
+        }
+
+        switch (event) {
+            case "leaderboard_update" -> channel.apply(current -> parse(json, current));
+            case "auction_closed" -> channel.apply(current -> current == null ? null : current.withClosed());
+            default -> {}
+        }
+    }
+
+    // leaderboard_update: {"latestBid": {"amount", "endTime", ...}, "leaderboard": [BidHistoryDto, ...]}
+    private LeaderboardState parse(String json, LeaderboardState current) {
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            JsonNode latestBid = root.path("latestBid");
+
+            List<LeaderboardState.Row> rows = new ArrayList<>();
+            for (JsonNode entry : root.path("leaderboard")) {
+                rows.add(new LeaderboardState.Row(
+                        entry.path("userId").asLong(),
+                        minorUnits(entry.path("amount").decimalValue()),
+                        entry.path("maskedUserName").asText()));
+            }
+
+            long endTime = latestBid.hasNonNull("endTime")
+                    ? epochMillis(LocalDateTime.parse(latestBid.get("endTime").asText()))
+                    : current == null ? 0 : current.endTime();
+            return new LeaderboardState(
+                    minorUnits(latestBid.path("amount").decimalValue()),
+                    endTime,
+                    current != null && current.closed(),
+                    rows);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring undecodable leaderboard update", e);
+            return current;
+        }
+    }
+
+    // Amounts go over the wire as long minor units (1/100 of the currency unit, the scale of the money columns)
+    private static long minorUnits(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    private long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Latest state of a product and the delta that leads to it from the state before.
+     */
+    record Update(LeaderboardState state, LeaderboardState previous, byte[] delta) {}
+
+    static final class Channel {
+
+        private final Set<LeaderboardSocket> sockets = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Update latest;
+
+        Update latest() {
+            return latest;
+        }
+
+        // The loaded state is only used if no update arrived while it was read
+        void initialize(LeaderboardState state) {
+            apply(current -> current == null ? state : current);
+        }
+
+        void apply(UnaryOperator<LeaderboardState> change) {
+            lock.lock();
+            try {
+                Update current = latest;
+                LeaderboardState previous = current == null ? null : current.state();
+                LeaderboardState next = change.apply(previous);
+                if (next == null || next == previous) {
+                    return;
+                }
+
+                byte[] delta = previous == null ? null : next.encodeDelta(previous);
+                if (previous != null && delta == null) {
+                    return;
+                }
+                latest = new Update(next, previous, delta);
+            } finally {
+                lock.unlock();
+            }
+            sockets.forEach(LeaderboardSocket::signal);
+        }
+    }
+}
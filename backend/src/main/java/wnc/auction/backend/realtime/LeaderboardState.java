@@ -0,0 +1,154 @@
+package wnc.auction.backend.realtime;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Leaderboard of a product as seen by WebSocket clients, with its binary encoding. Amounts are in minor units and
+ * the end time is in epoch milliseconds, all big-endian.
+ *
+ * <p>A snapshot is sent once per subscription:
+ *
+ * <pre>
+ * 0x01 flags:u8 price:i64 endTime:i64 rows:u8 { userId:i64 amount:i64 nameLength:u8 name:utf8 }*
+ * </pre>
+ *
+ * Every later update is a delta against the previous message sent on the same socket; only the parts that changed
+ * are present, as announced by the flags:
+ *
+ * <pre>
+ * 0x02 flags:u8 [price:i64] [endTime:i64] [rows:u8 changes:u8 { rank:u8 ... }*]
+ * </pre>
+ *
+ * A changed rank either refers to a row the client already has ({@code rank | 0x80}, {@code userId:i64}), which
+ * is the case for bidders who only moved, or carries the full row ({@code rank}, {@code userId:i64
+ * amount:i64 nameLength:u8 name:utf8}). Ranks are 0-based; rows past the new row count are dropped.
+ */
+record LeaderboardState(long price, long endTime, boolean closed, List<Row> rows) {
+
+    static final byte SNAPSHOT = 0x01;
+    static final byte DELTA = 0x02;
+
+    static final int FLAG_PRICE = 0x01;
+    static final int FLAG_END_TIME = 0x02;
+    static final int FLAG_CLOSED = 0x04;
+    static final int FLAG_ROWS = 0x08;
+
+    private static final int REFERENCE = 0x80;
+    private static final int MAX_NAME_BYTES = 255;
+
+    record Row(long userId, long amount, String name) {}
+
+    LeaderboardState {
+        rows = List.copyOf(rows);
+    }
+
+    LeaderboardState withClosed() {
+        return new LeaderboardState(price, endTime, true, rows);
+    }
+
+    byte[] encodeSnapshot() {
+        Writer out = new Writer();
+        out.writeByte(SNAPSHOT);
+        out.writeByte(closed ? FLAG_CLOSED : 0);
+        out.writeLong(price);
+        out.writeLong(endTime);
+        out.writeByte(rows.size());
+        rows.forEach(out::writeRow);
+        return out.toByteArray();
+    }
+
+    /**
+     * Changes a client holding {@code previous} needs to reach this state, or {@code null} if there are none.
+     */
+    byte[] encodeDelta(LeaderboardState previous) {
+        int flags = 0;
+        if (price != previous.price) {
+            flags |= FLAG_PRICE;
+        }
+        if (endTime != previous.endTime) {
+            flags |= FLAG_END_TIME;
+        }
+        if (closed) {
+            flags |= FLAG_CLOSED;
+        }
+        if (!rows.equals(previous.rows)) {
+            flags |= FLAG_ROWS;
+        }
+        if (flags == 0 || flags == FLAG_CLOSED && previous.closed) {
+            return null;
+        }
+
+        Writer out = new Writer();
+        out.writeByte(DELTA);
+        out.writeByte(flags);
+        if ((flags & FLAG_PRICE) != 0) {
+            out.writeLong(price);
+        }
+        if ((flags & FLAG_END_TIME) != 0) {
+            out.writeLong(endTime);
+        }
+        if ((flags & FLAG_ROWS) != 0) {
+            writeRowChanges(out, previous.rows);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeRowChanges(Writer out, List<Row> previousRows) {
+        Map<Long, Row> known = new HashMap<>();
+        previousRows.forEach(row -> known.put(row.userId(), row));
+
+        int changes = 0;
+        for (int rank = 0; rank < rows.size(); rank++) {
+            if (rank >= previousRows.size() || !rows.get(rank).equals(previousRows.get(rank))) {
+                changes++;
+            }
+        }
+
+        out.writeByte(rows.size());
+        out.writeByte(changes);
+        for (int rank = 0; rank < rows.size(); rank++) {
+            Row row = rows.get(rank);
+            if (rank < previousRows.size() && row.equals(previousRows.get(rank))) {
+                continue;
+            }
+            if (row.equals(known.get(row.userId()))) {
+                out.writeByte(rank | REFERENCE);
+                out.writeLong(row.userId());
+            } else {
+                out.writeByte(rank);
+                out.writeRow(row);
+            }
+        }
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeRow(Row row) {
+            writeLong(row.userId());
+            writeLong(row.amount());
+            byte[] name = Objects.requireNonNullElse(row.name(), "").getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(name.length, MAX_NAME_BYTES);
+            writeByte(length);
+            write(name, 0, length);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package wnc.auction.backend.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collapses the leaderboard updates of a product that arrive within one window into a single broadcast. The
+ * first update of a window schedules the flush; later ones only replace the pending update, so the flush
+ * publishes the latest state once however many bids landed in between.
+ */
+@Component
+@Slf4j
+public class LeaderboardUpdateCoalescer {
+
+    private final long windowMillis;
+    private final Counter coalesced;
+
+    private final Map<Long, Runnable> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("leaderboard-flush").daemon().factory());
+    private final ExecutorService flushers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LeaderboardUpdateCoalescer(
+            MeterRegistry meterRegistry, @Value("${app.notification.leaderboard-window-ms:100}") long windowMillis) {
+        this.windowMillis = windowMillis;
+        this.coalesced = Counter.builder("auction.sse.leaderboard.coalesced")
+                .description("Leaderboard updates replaced by a newer one before being broadcast")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the broadcast for a product, replacing any broadcast still pending for it. A window of zero
+     * broadcasts immediately.
+     */
+    public void submit(Long productId, Runnable broadcast) {
+        if (windowMillis <= 0) {
+            broadcast.run();
+            return;
+        }
+
+        if (pending.put(productId, broadcast) == null) {
+            timer.schedule(() -> flushers.execute(() -> flush(productId)), windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    private void flush(Long productId) {
+        Runnable broadcast = pending.remove(productId);
+        if (broadcast == null) {
+            return;
+        }
+        try {
+            broadcast.run();
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast leaderboard update for product {}", productId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        pending.keySet().forEach(this::flush);
+        flushers.close();
+    }
+}
@@ -0,0 +1,129 @@
+package wnc.auction.backend.realtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import wnc.auction.backend.exception.RateLimitExceededException;
+import wnc.auction.backend.security.CurrentUser;
+import wnc.auction.backend.utils.Constants;
+import wnc.auction.backend.utils.MessagesUtils;
+
+/**
+ * Caps the SSE connections a node holds per user, per client IP and per product. A connection over the user or
+ * product limit evicts the oldest connection sharing that key, so a reconnecting client always gets through
+ * while a tab loop or a scraper cannot pile up emitters. Over the IP limit the new connection is refused
+ * instead: clients behind one address are not one identity, and must not be able to evict each other's
+ * streams. A limit of 0 disables it.
+ */
+@Component
+@Slf4j
+public class SseAdmission {
+
+    private final int perUser;
+    private final int perIp;
+    private final int perProduct;
+
+    // Connections per key ("user:7", "ip:10.0.0.1", "product:12"), oldest first
+    private final Map<String, ArrayDeque<SseConnection>> admitted = new ConcurrentHashMap<>();
+
+    public SseAdmission(
+            @Value("${app.notification.limits.per-user:8}") int perUser,
+            @Value("${app.notification.limits.per-ip:32}") int perIp,
+            @Value("${app.notification.limits.per-product:10000}") int perProduct) {
+        this.perUser = perUser;
+        this.perIp = perIp;
+        this.perProduct = perProduct;
+    }
+
+    /**
+     * Keys a connection opened by the current request counts against; {@code productId} may be null.
+     */
+    List<String> keysOfCurrentRequest(Long productId) {
+        List<String> keys = new ArrayList<>(3);
+        Long userId = CurrentUser.getUserId();
+        if (userId != null && perUser > 0) {
+            keys.add("user:" + userId);
+        }
+        String ip = clientIp();
+        if (ip != null && perIp > 0) {
+            keys.add("ip:" + ip);
+        }
+        if (productId != null && perProduct > 0) {
+            keys.add("product:" + productId);
+        }
+        return keys;
+    }
+
+    /**
+     * Counts the connection against its keys and returns the connections it displaces, to be closed by the
+     * caller.
+     *
+     * @throws RateLimitExceededException if the client IP is at its limit; the connection is then not counted
+     */
+    List<SseConnection> admit(SseConnection connection, List<String> keys) {
+        // IP first, so a refused connection has not been counted against any other key
+        for (String key : keys) {
+            if (key.startsWith("ip:")) {
+                admitted.compute(key, (k, connections) -> {
+                    ArrayDeque<SseConnection> queue = connections != null ? connections : new ArrayDeque<>();
+                    if (queue.size() >= perIp) {
+                        log.info("SSE admission limit reached for {}, refusing connection", key);
+                        throw new RateLimitExceededException(
+                                MessagesUtils.getMessage(Constants.ErrorCode.RATE_LIMIT_EXCEEDED), 1, 0);
+                    }
+                    queue.addLast(connection);
+                    return queue;
+                });
+            }
+        }
+
+        List<SseConnection> evicted = new ArrayList<>();
+        for (String key : keys) {
+            if (key.startsWith("ip:")) {
+                continue;
+            }
+            int limit = limit(key);
+            admitted.compute(key, (k, connections) -> {
+                ArrayDeque<SseConnection> queue = connections != null ? connections : new ArrayDeque<>();
+                queue.addLast(connection);
+                while (queue.size() > limit) {
+                    evicted.add(queue.pollFirst());
+                }
+                return queue;
+            });
+        }
+        if (!evicted.isEmpty()) {
+            log.info("SSE admission limit reached for {}, evicting {} oldest connections", keys, evicted.size());
+        }
+        return evicted;
+    }
+
+    void release(SseConnection connection, List<String> keys) {
+        for (String key : keys) {
+            admitted.computeIfPresent(key, (k, connections) -> {
+                connections.remove(connection);
+                return connections.isEmpty() ? null : connections;
+            });
+        }
+    }
+
+    private int limit(String key) {
+        return key.startsWith("user:") ? perUser : perProduct;
+    }
+
+    // Not the raw X-Forwarded-For header, which the client controls: server.forward-headers-strategy already
+    // resolves the remote address from trusted proxies
+    private static String clientIp() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        return attributes.getRequest().getRemoteAddr();
+    }
+}
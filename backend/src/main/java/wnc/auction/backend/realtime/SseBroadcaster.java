@@ -0,0 +1,166 @@
+package wnc.auction.backend.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide fan-out for real-time events. An event is serialized once on the node that produced it and
+ * published to a Redis channel; every node (the publisher included) hands it to its {@link LocalDelivery}
+ * listeners, which write it to the clients connected to that node. Viewers therefore see every event whichever
+ * replica they are connected to, without sticky sessions.
+ *
+ * <p>The payload travels as pre-encoded JSON, so it is written to the emitters as-is. User and product events are
+ * numbered per user/product by a Redis counter incremented in the same script that publishes them, so IDs are
+ * identical on every node and arrive in order; clients resume from them with {@code Last-Event-ID}. If Redis is
+ * unavailable the event is delivered locally only, without an ID.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SseBroadcaster {
+
+    private static final String CHANNEL = "sse:events";
+    private static final String SEQUENCE_PREFIX = "sse:seq:";
+    private static final long SEQUENCE_TTL_SECONDS = Duration.ofDays(1).toSeconds();
+
+    // KEYS[1] = sequence; ARGV = channel, frame header, JSON, sequence TTL
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>("""
+			local id = redis.call('INCR', KEYS[1])
+			redis.call('EXPIRE', KEYS[1], ARGV[4])
+			redis.call('PUBLISH', ARGV[1], ARGV[2] .. id .. '\\n' .. ARGV[3])
+			return id
+			""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final List<LocalDelivery> localDeliveries = new CopyOnWriteArrayList<>();
+
+    /**
+     * Who an event is addressed to; {@code key} is the user, product or chat transaction ID.
+     */
+    public enum Scope {
+        USER,
+        PRODUCT,
+        CHAT,
+        ALL_USERS;
+
+        public boolean isNumbered() {
+            return this == USER || this == PRODUCT;
+        }
+    }
+
+    /**
+     * Writes an event to the emitters connected to this node; {@code id} is 0 for events without an ID.
+     */
+    @FunctionalInterface
+    public interface LocalDelivery {
+        void deliver(Scope scope, long key, String event, long id, String json);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> receive(message.getBody()), new ChannelTopic(CHANNEL));
+    }
+
+    public void register(LocalDelivery localDelivery) {
+        localDeliveries.add(localDelivery);
+    }
+
+    public void publish(Scope scope, long key, String event, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event for {} {}", event, scope, key, e);
+            return;
+        }
+
+        String header = scope.name() + ' ' + key + ' ' + event + ' ';
+        try {
+            if (scope.isNumbered()) {
+                redisTemplate.execute(
+                        PUBLISH_SCRIPT,
+                        List.of(sequenceKey(scope, key)),
+                        CHANNEL,
+                        header,
+                        json,
+                        String.valueOf(SEQUENCE_TTL_SECONDS));
+            } else {
+                redisTemplate.convertAndSend(CHANNEL, header + "0\n" + json);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast {} event for {} {}, delivering locally only", event, scope, key, e);
+            deliverLocally(scope, key, event, 0, json);
+        }
+    }
+
+    /**
+     * ID of the last event published for a user or product, 0 if none is known, or -1 if Redis cannot be read.
+     */
+    public long lastEventId(Scope scope, long key) {
+        try {
+            String value = redisTemplate.opsForValue().get(sequenceKey(scope, key));
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read the event sequence of {} {}", scope, key, e);
+            return -1;
+        }
+    }
+
+    private static String sequenceKey(Scope scope, long key) {
+        return SEQUENCE_PREFIX + scope.name().toLowerCase() + ':' + key;
+    }
+
+    // Frame: "<scope> <key> <event> <id>\n<json>"
+    private void receive(byte[] body) {
+        String frame = new String(body, StandardCharsets.UTF_8);
+        int headerEnd = frame.indexOf('\n');
+        int first = frame.indexOf(' ');
+        int second = frame.indexOf(' ', first + 1);
+        int third = frame.indexOf(' ', second + 1);
+        if (headerEnd < 0 || first < 0 || second < 0 || third < 0 || third > headerEnd) {
+            log.warn("Ignoring malformed real-time event frame");
+            return;
+        }
+
+        Scope scope;
+        long key;
+        long id;
+        try {
+            scope = Scope.valueOf(frame.substring(0, first));
+            key = Long.parseLong(frame.substring(first + 1, second));
+            id = Long.parseLong(frame.substring(third + 1, headerEnd));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed real-time event frame");
+            return;
+        }
+        deliverLocally(scope, key, frame.substring(second + 1, third), id, frame.substring(headerEnd + 1));
+    }
+
+    private void deliverLocally(Scope scope, long key, String event, long id, String json) {
+        for (LocalDelivery localDelivery : localDeliveries) {
+            try {
+                localDelivery.deliver(scope, key, event, id, json);
+            } catch (RuntimeException e) {
+                log.error("Failed to deliver real-time event", e);
+            }
+        }
+    }
+}
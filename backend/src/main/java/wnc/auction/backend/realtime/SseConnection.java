@@ -0,0 +1,207 @@
+package wnc.auction.backend.realtime;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One client stream with its own bounded outbound queue, written by a dedicated virtual thread. Producers only
+ * enqueue, so a slow client never holds up the thread that publishes an event or the other clients.
+ *
+ * <p>Backpressure: a conflatable frame replaces an undelivered frame of the same event, and is dropped when the
+ * queue is full. A regular frame that does not fit, or a queue whose oldest frame has waited longer than the
+ * allowed lag, evicts the client; it reconnects and catches up.
+ */
+@Slf4j
+public final class SseConnection {
+
+    private final SseEmitter emitter;
+    private final String stream;
+    private final SseConnectionFactory factory;
+    private final Consumer<SseConnection> onClose;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Thread writer;
+    private volatile long lastWriteAt = System.nanoTime();
+
+    private static final class Pending {
+
+        private SseFrame frame;
+        private final long enqueuedAt;
+
+        private Pending(SseFrame frame, long enqueuedAt) {
+            this.frame = frame;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    SseConnection(SseEmitter emitter, String stream, SseConnectionFactory factory, Consumer<SseConnection> onClose) {
+        this.emitter = emitter;
+        this.stream = stream;
+        this.factory = factory;
+        this.onClose = onClose;
+
+        emitter.onCompletion(() -> close(false));
+        emitter.onTimeout(() -> close(false));
+        emitter.onError(e -> close(false));
+
+        this.writer = Thread.ofVirtual().name("sse-" + stream).start(this::drain);
+    }
+
+    public SseEmitter emitter() {
+        return emitter;
+    }
+
+    String stream() {
+        return stream;
+    }
+
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    // Time since the last frame was written to the client
+    long idleNanos(long now) {
+        return now - lastWriteAt;
+    }
+
+    /**
+     * Queues a frame for this client. Returns false if the client is gone or was evicted by this call.
+     */
+    public boolean send(SseFrame frame) {
+        if (closed.get()) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Pending oldest = queue.peekFirst();
+            if (oldest != null && now - oldest.enqueuedAt > factory.maxLagNanos()) {
+                return evict("lagging");
+            }
+
+            if (frame.isConflatable() && replace(frame)) {
+                factory.dropped(stream, "conflated");
+                return true;
+            }
+
+            if (queue.size() >= factory.queueCapacity()) {
+                if (frame.isConflatable()) {
+                    factory.dropped(stream, "full");
+                    return true;
+                }
+                return evict("full");
+            }
+
+            queue.addLast(new Pending(frame, now));
+            factory.queued(1);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Swap an undelivered frame with the same conflation key for the newer one, keeping its place in the queue
+    private boolean replace(SseFrame frame) {
+        for (Pending pending : queue) {
+            if (frame.conflationKey().equals(pending.frame.conflationKey())) {
+                pending.frame = frame;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes the stream and releases the queue. Safe to call more than once.
+     */
+    public void close() {
+        close(true);
+    }
+
+    // Never admitted: stops the writer without running the close callback, the caller fails the request
+    void discard() {
+        if (closed.compareAndSet(false, true)) {
+            writer.interrupt();
+        }
+    }
+
+    private void close(boolean completeEmitter) {
+        if (closed.compareAndSet(false, true)) {
+            release();
+            finish(completeEmitter);
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            factory.queued(-queue.size());
+            queue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(boolean completeEmitter) {
+        writer.interrupt();
+
+        if (completeEmitter) {
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // Already completed by the container
+            }
+        }
+        onClose.accept(this);
+    }
+
+    // Called with the lock held
+    private boolean evict(String reason) {
+        if (closed.compareAndSet(false, true)) {
+            log.info("Evicting slow {} stream client ({}, {} frames queued)", stream, reason, queue.size());
+            factory.evicted(stream, reason);
+            release();
+            // Completing the emitter may block on the stalled response, so it is not done under the queue lock
+            Thread.ofVirtual().start(() -> finish(true));
+        }
+        return false;
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get()) {
+                SseFrame frame = next();
+                frame.writeTo(emitter);
+                lastWriteAt = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        } catch (IOException | IllegalStateException e) {
+            close(false);
+        }
+    }
+
+    private SseFrame next() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                notEmpty.await();
+            }
+            factory.queued(-1);
+            return queue.pollFirst().frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package wnc.auction.backend.realtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wnc.auction.backend.exception.RateLimitExceededException;
+
+/**
+ * Opens {@link SseConnection}s with the configured queue bounds, admits them under the {@link SseAdmission}
+ * limits, enrolls them in the {@link SseHeartbeatWheel} and keeps the delivery metrics they report: live
+ * connections, frames waiting across all queues, frames dropped and clients evicted, tagged by stream.
+ */
+@Component
+public class SseConnectionFactory {
+
+    private final MeterRegistry meterRegistry;
+    private final SseHeartbeatWheel heartbeatWheel;
+    private final SseAdmission admission;
+    private final int queueCapacity;
+    private final long maxLagNanos;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Map<String, AtomicInteger> liveConnections = new ConcurrentHashMap<>();
+
+    public SseConnectionFactory(
+            MeterRegistry meterRegistry,
+            SseHeartbeatWheel heartbeatWheel,
+            SseAdmission admission,
+            @Value("${app.notification.queue-capacity:64}") int queueCapacity,
+            @Value("${app.notification.max-lag-seconds:30}") long maxLagSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.heartbeatWheel = heartbeatWheel;
+        this.admission = admission;
+        this.queueCapacity = queueCapacity;
+        this.maxLagNanos = TimeUnit.SECONDS.toNanos(maxLagSeconds);
+
+        Gauge.builder("auction.sse.queue.depth", queueDepth, AtomicLong::get)
+                .description("Frames waiting in SSE client queues")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps a new emitter; {@code onClose} runs once when the client disconnects or is evicted.
+     */
+    public SseConnection open(SseEmitter emitter, String stream, Consumer<SseConnection> onClose) {
+        return open(emitter, stream, null, onClose);
+    }
+
+    /**
+     * Same, for a stream of one product: it also counts against the product's connection limit. Opening a
+     * connection over the user or product limit closes the oldest connection of the same user or product; over
+     * the IP limit it is refused with a {@link RateLimitExceededException}.
+     */
+    public SseConnection open(SseEmitter emitter, String stream, Long productId, Consumer<SseConnection> onClose) {
+        List<String> admissionKeys = admission.keysOfCurrentRequest(productId);
+        AtomicInteger live = liveConnections(stream);
+
+        SseConnection connection = new SseConnection(emitter, stream, this, closed -> {
+            admission.release(closed, admissionKeys);
+            live.decrementAndGet();
+            onClose.accept(closed);
+        });
+        List<SseConnection> displacedConnections;
+        try {
+            displacedConnections = admission.admit(connection, admissionKeys);
+        } catch (RateLimitExceededException e) {
+            connection.discard();
+            evicted(stream, "refused");
+            throw e;
+        }
+        live.incrementAndGet();
+        heartbeatWheel.add(connection);
+
+        for (SseConnection displaced : displacedConnections) {
+            evicted(displaced.stream(), "limit");
+            displaced.close();
+        }
+        // Closed before it was admitted: its release has already run
+        if (!connection.isOpen()) {
+            admission.release(connection, admissionKeys);
+        }
+        return connection;
+    }
+
+    private AtomicInteger liveConnections(String stream) {
+        return liveConnections.computeIfAbsent(stream, key -> {
+            AtomicInteger live = new AtomicInteger();
+            Gauge.builder("auction.sse.connections", live, AtomicInteger::get)
+                    .description("Open SSE connections on this node")
+                    .tag("stream", key)
+                    .register(meterRegistry);
+            return live;
+        });
+    }
+
+    int queueCapacity() {
+        return queueCapacity;
+    }
+
+    long maxLagNanos() {
+        return maxLagNanos;
+    }
+
+    void queued(int delta) {
+        queueDepth.addAndGet(delta);
+    }
+
+    void dropped(String stream, String reason) {
+        Counter.builder("auction.sse.dropped")
+                .description("SSE frames dropped or replaced by a newer frame before delivery")
+                .tag("stream", stream)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void evicted(String stream, String reason) {
+        Counter.builder("auction.sse.evicted")
+                .description(
+                        "SSE clients disconnected for falling behind or over an admission limit, or refused at the IP limit")
+                .tag("stream", stream)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
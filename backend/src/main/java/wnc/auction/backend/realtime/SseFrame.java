@@ -0,0 +1,87 @@
+package wnc.auction.backend.realtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A complete SSE event encoded once into bytes, so one event can be written to any number of emitters without
+ * going through the message converters again for each of them.
+ */
+public final class SseFrame {
+
+    private final long id;
+    private final String event;
+    private final String data;
+    private final String conflationKey;
+    private final Set<DataWithMediaType> encoded;
+
+    private SseFrame(long id, String event, String data, String conflationKey, byte[] bytes) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.conflationKey = conflationKey;
+        this.encoded = Set.of(new DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    // Compact JSON never contains a line break, so it fits in a single data line
+    public static SseFrame of(String event, String json) {
+        return of(0, event, json);
+    }
+
+    // An ID of 0 leaves the "id" field out
+    public static SseFrame of(long id, String event, String json) {
+        return new SseFrame(id, event, json, null, encode(id, event, json));
+    }
+
+    /**
+     * A frame carrying the full latest state (leaderboard, keep-alive); a newer frame of the same event makes an
+     * undelivered one obsolete, so it may be replaced or dropped under backpressure.
+     */
+    public static SseFrame conflatable(String event, String json) {
+        return conflatable(0, event, json);
+    }
+
+    public static SseFrame conflatable(long id, String event, String json) {
+        return new SseFrame(id, event, json, event, encode(id, event, json));
+    }
+
+    /**
+     * The same event for a multiplexed stream: the JSON payload is wrapped with its topic and ID, as the one
+     * stream carries events of several topics, each with its own numbering. Conflation stays within the topic.
+     */
+    public SseFrame tagged(String topic) {
+        String json = "{\"topic\":\"" + topic + "\",\"id\":" + id + ",\"data\":" + data + "}";
+        String key = conflationKey == null ? null : topic + '/' + conflationKey;
+        return new SseFrame(0, event, json, key, encode(0, event, json));
+    }
+
+    private static byte[] encode(long id, String event, String json) {
+        String frame = "event:" + event + "\ndata:" + json + "\n\n";
+        return (id > 0 ? "id:" + id + "\n" + frame : frame).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String event() {
+        return event;
+    }
+
+    // Frames with the same key supersede each other; null if the frame must be delivered
+    String conflationKey() {
+        return conflationKey;
+    }
+
+    public boolean isConflatable() {
+        return conflationKey != null;
+    }
+
+    public void writeTo(SseEmitter emitter) throws IOException {
+        emitter.send(encoded);
+    }
+}
@@ -0,0 +1,79 @@
+package wnc.auction.backend.realtime;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keep-alive pings spread over a hashed timing wheel. Connections are assigned to the slots round-robin and the
+ * wheel visits one slot per tick, so each connection is checked once per interval on its own phase and the work
+ * is flat over time instead of one sweep of every connection at once.
+ *
+ * <p>A visited connection is pinged only if nothing was written to it since its previous visit; one that has closed
+ * is dropped from its slot. A failed ping closes the connection, which then removes itself from its stream.
+ */
+@Component
+@Slf4j
+public class SseHeartbeatWheel {
+
+    private static final SseFrame PING = SseFrame.conflatable("ping", "keep-alive");
+
+    private final List<Set<SseConnection>> slots;
+    private final long idleNanos;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+    private int cursor;
+
+    public SseHeartbeatWheel(
+            @Value("${app.notification.heartbeat.interval-seconds:30}") long intervalSeconds,
+            @Value("${app.notification.heartbeat.tick-ms:1000}") long tickMillis) {
+        int slotCount = (int) Math.max(1, TimeUnit.SECONDS.toMillis(intervalSeconds) / tickMillis);
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        // A write right after the previous visit still leaves the client silent for at most one interval
+        this.idleNanos = TimeUnit.SECONDS.toNanos(intervalSeconds) - TimeUnit.MILLISECONDS.toNanos(tickMillis);
+
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void add(SseConnection connection) {
+        slots.get(Math.floorMod(nextSlot.getAndIncrement(), slots.size())).add(connection);
+    }
+
+    private void tick() {
+        Set<SseConnection> slot = slots.get(cursor);
+        cursor = (cursor + 1) % slots.size();
+
+        long now = System.nanoTime();
+        try {
+            slot.removeIf(connection -> {
+                if (!connection.isOpen()) {
+                    return true;
+                }
+                if (connection.idleNanos(now) >= idleNanos) {
+                    return !connection.send(PING);
+                }
+                return false;
+            });
+        } catch (RuntimeException e) {
+            log.error("Heartbeat tick failed", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+}
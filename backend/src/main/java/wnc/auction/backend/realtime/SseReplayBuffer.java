@@ -0,0 +1,125 @@
+package wnc.auction.backend.realtime;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
+
+/**
+ * The last few numbered events of each user and product stream, so a client reconnecting with
+ * {@code Last-Event-ID} gets what it missed from memory instead of reloading the page state over REST.
+ *
+ * <p>Every node receives every event, so every node can serve any reconnect. Appending an event together with
+ * its fan-out, and replaying together with registering the new connection, happen under the same per-stream
+ * lock: a reconnecting client sees each event exactly once.
+ */
+@Component
+public class SseReplayBuffer {
+
+    private final int capacity;
+    private final long retentionMillis;
+    private final int maxStreams;
+
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public SseReplayBuffer(
+            @Value("${app.notification.replay.events-per-stream:32}") int capacity,
+            @Value("${app.notification.replay.retention-seconds:300}") long retentionSeconds,
+            @Value("${app.notification.replay.max-streams:50000}") int maxStreams) {
+        this.capacity = capacity;
+        this.retentionMillis = retentionSeconds * 1000;
+        this.maxStreams = maxStreams;
+    }
+
+    private static final class Ring {
+
+        private final ArrayDeque<SseFrame> frames = new ArrayDeque<>();
+        private volatile long touchedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Remembers a numbered frame and runs {@code deliver} (the fan-out to live connections) under the stream's
+     * lock.
+     */
+    public void append(Scope scope, long key, SseFrame frame, Runnable deliver) {
+        Ring ring = ring(scope, key);
+        synchronized (ring) {
+            if (ring.frames.size() >= capacity) {
+                ring.frames.pollFirst();
+            }
+            ring.frames.addLast(frame);
+            ring.touchedAt = System.currentTimeMillis();
+            deliver.run();
+        }
+    }
+
+    /**
+     * Sends the frames numbered after {@code lastEventId} and then runs {@code register}, with no event appended
+     * in between. If some of the missed events are no longer buffered, nothing is replayed and {@code onGap}
+     * runs instead; the client then has to reload its state.
+     *
+     * @param latestId ID of the newest event published for the stream, consulted when this node holds none of
+     *     its events; negative if unknown
+     */
+    public void replay(
+            Scope scope,
+            long key,
+            long lastEventId,
+            LongSupplier latestId,
+            Consumer<SseFrame> send,
+            Runnable onGap,
+            Runnable register) {
+        Ring ring = ring(scope, key);
+        synchronized (ring) {
+            SseFrame first = ring.frames.peekFirst();
+            boolean complete = first != null ? first.id() <= lastEventId + 1 : isUpToDate(lastEventId, latestId);
+            if (complete) {
+                for (SseFrame frame : ring.frames) {
+                    if (frame.id() > lastEventId) {
+                        send.accept(frame);
+                    }
+                }
+            } else {
+                onGap.run();
+            }
+            register.run();
+        }
+    }
+
+    // Nothing buffered here: complete only if nothing was published after the client's last event
+    private static boolean isUpToDate(long lastEventId, LongSupplier latestId) {
+        long latest = latestId.getAsLong();
+        return latest >= 0 && latest <= lastEventId;
+    }
+
+    private Ring ring(Scope scope, long key) {
+        String name = scope.name() + ':' + key;
+        Ring ring = rings.get(name);
+        if (ring == null) {
+            trimIfFull();
+            ring = rings.computeIfAbsent(name, k -> new Ring());
+        }
+        return ring;
+    }
+
+    // Drop streams without recent events; if that is not enough, an arbitrary tenth of them
+    private void trimIfFull() {
+        if (rings.size() < maxStreams) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        rings.values().removeIf(ring -> ring.touchedAt < cutoff);
+
+        int toRemove = rings.size() - maxStreams + Math.max(1, maxStreams / 10);
+        Iterator<String> iterator = rings.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package wnc.auction.backend.realtime;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
+
+/**
+ * Carries topic subscription changes of multiplexed session streams to the node holding the session. With a
+ * plain round-robin load balancer the control request usually lands on another node than the stream, so the
+ * change is published to every node and applied by the one that has the session.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SseSessionControl {
+
+    private static final String CHANNEL = "sse:session-control";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile Consumer<Command> handler = command -> {};
+
+    /**
+     * Subscribe to, or unsubscribe from, one topic; {@code lastEventId} is negative when there is nothing to replay.
+     */
+    public record Command(String sessionId, long userId, boolean subscribe, Scope scope, long key, long lastEventId) {}
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> receive(message.getBody()), new ChannelTopic(CHANNEL));
+    }
+
+    public void register(Consumer<Command> handler) {
+        this.handler = handler;
+    }
+
+    public void publish(Command command) {
+        try {
+            redisTemplate.convertAndSend(
+                    CHANNEL,
+                    String.join(
+                            " ",
+                            command.sessionId(),
+                            String.valueOf(command.userId()),
+                            String.valueOf(command.subscribe()),
+                            command.scope().name(),
+                            String.valueOf(command.key()),
+                            String.valueOf(command.lastEventId())));
+        } catch (DataAccessException e) {
+            log.warn("Failed to forward subscription change for session {}", command.sessionId(), e);
+        }
+    }
+
+    private void receive(byte[] body) {
+        String[] parts = new String(body, StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 6) {
+            log.warn("Ignoring malformed session control message");
+            return;
+        }
+
+        try {
+            handler.accept(new Command(
+                    parts[0],
+                    Long.parseLong(parts[1]),
+                    Boolean.parseBoolean(parts[2]),
+                    Scope.valueOf(parts[3]),
+                    Long.parseLong(parts[4]),
+                    Long.parseLong(parts[5])));
+        } catch (RuntimeException e) {
+            log.error("Failed to apply session control message", e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package wnc.auction.backend.realtime;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide count of the clients watching each product (SSE product streams, session topics and leaderboard
+ * sockets).
+ *
+ * <p>Every node counts its own watchers in memory and periodically reports the changes since its last report to
+ * Redis, where they are added to a hash of cluster totals and to a hash of the node's own contribution. Nodes
+ * that stop reporting are reaped by the next report of any node: their contribution is subtracted from the
+ * totals. Reads never reach Redis on the caller's thread; totals are cached per product and refreshed in the
+ * background at most once per refresh interval.
+ */
+@Component
+@Slf4j
+public class WatcherPresence {
+
+    private static final String TOTALS_KEY = "presence:watchers";
+    private static final String NODES_KEY = "presence:nodes";
+    private static final String NODE_PREFIX = "presence:node:";
+
+    // KEYS[1] = totals, KEYS[2] = live nodes; ARGV = node prefix, node, now, dead before, full report (1/0),
+    // then product/delta pairs. Returns -1 if the node was reaped and has to send its full counts.
+    private static final RedisScript<Long> REPORT_SCRIPT = new DefaultRedisScript<>("""
+			local dead = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[4])
+			for _, node in ipairs(dead) do
+				local contribution = redis.call('HGETALL', ARGV[1] .. node)
+				for i = 1, #contribution, 2 do
+					redis.call('HINCRBY', KEYS[1], contribution[i], -tonumber(contribution[i + 1]))
+				end
+				redis.call('DEL', ARGV[1] .. node)
+				redis.call('ZREM', KEYS[2], node)
+			end
+			if ARGV[5] == '0' and not redis.call('ZSCORE', KEYS[2], ARGV[2]) then
+				return -1
+			end
+			redis.call('ZADD', KEYS[2], ARGV[3], ARGV[2])
+			local own = ARGV[1] .. ARGV[2]
+			for i = 6, #ARGV, 2 do
+				if redis.call('HINCRBY', own, ARGV[i], ARGV[i + 1]) <= 0 then
+					redis.call('HDEL', own, ARGV[i])
+				end
+				if redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) <= 0 then
+					redis.call('HDEL', KEYS[1], ARGV[i])
+				end
+			end
+			return 0
+			""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long refreshIntervalNanos;
+    private final Duration nodeTimeout;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Watchers on this node, and what was last added to the cluster totals for them
+    private final Map<Long, Integer> local = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> reported = new HashMap<>();
+
+    private final Map<Long, Total> totals = new ConcurrentHashMap<>();
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    private record Total(long count, long fetchedAt) {}
+
+    public WatcherPresence(
+            StringRedisTemplate redisTemplate, @Value("${app.notification.presence.refresh-ms:5000}") long refreshMs) {
+        this.redisTemplate = redisTemplate;
+        this.refreshIntervalNanos = Duration.ofMillis(refreshMs).toNanos();
+        this.nodeTimeout = Duration.ofMillis(refreshMs * 3);
+    }
+
+    public void watch(long productId) {
+        local.merge(productId, 1, Integer::sum);
+    }
+
+    public void unwatch(long productId) {
+        local.computeIfPresent(productId, (id, count) -> count <= 1 ? null : count - 1);
+    }
+
+    /**
+     * Watchers of a product across the cluster, as of the last refresh. Until the first refresh completes, only
+     * the watchers on this node are counted.
+     */
+    public long watchers(long productId) {
+        Total total = totals.get(productId);
+        if (total == null || System.nanoTime() - total.fetchedAt() > refreshIntervalNanos) {
+            refresh(productId);
+        }
+        if (total != null) {
+            return total.count();
+        }
+        return local.getOrDefault(productId, 0);
+    }
+
+    private void refresh(long productId) {
+        if (!refreshing.add(productId)) {
+            return;
+        }
+        Thread.ofVirtual().name("presence-refresh").start(() -> {
+            try {
+                Object value = redisTemplate.opsForHash().get(TOTALS_KEY, String.valueOf(productId));
+                long count = value == null ? 0 : Math.max(0, Long.parseLong(value.toString()));
+                totals.put(productId, new Total(count, System.nanoTime()));
+            } catch (DataAccessException e) {
+                log.warn("Failed to read the watchers of product {}", productId, e);
+            } finally {
+                refreshing.remove(productId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.presence.refresh-ms:5000}")
+    public synchronized void report() {
+        // Totals of products no longer asked for are dropped
+        long now = System.nanoTime();
+        totals.values().removeIf(total -> now - total.fetchedAt() > 10 * refreshIntervalNanos);
+
+        if (!send(!reported.isEmpty())) {
+            reported.clear();
+            send(false);
+        }
+    }
+
+    // Withdraw this node's watchers from the totals
+    @PreDestroy
+    void shutdown() {
+        local.clear();
+        report();
+    }
+
+    // Returns false if an incremental report was refused because this node had been reaped
+    private boolean send(boolean incremental) {
+        Map<Long, Integer> current = new HashMap<>(local);
+
+        List<String> args = new ArrayList<>();
+        long nowMillis = System.currentTimeMillis();
+        args.add(NODE_PREFIX);
+        args.add(nodeId);
+        args.add(String.valueOf(nowMillis));
+        args.add(String.valueOf(nowMillis - nodeTimeout.toMillis()));
+        args.add(incremental ? "0" : "1");
+        current.forEach((productId, count) -> {
+            int delta = count - reported.getOrDefault(productId, 0);
+            if (delta != 0) {
+                args.add(String.valueOf(productId));
+                args.add(String.valueOf(delta));
+            }
+        });
+        reported.forEach((productId, count) -> {
+            if (!current.containsKey(productId)) {
+                args.add(String.valueOf(productId));
+                args.add(String.valueOf(-count));
+            }
+        });
+
+        try {
+            Long result = redisTemplate.execute(REPORT_SCRIPT, List.of(TOTALS_KEY, NODES_KEY), args.toArray());
+            if (result != null && result < 0) {
+                return false;
+            }
+            reported.clear();
+            reported.putAll(current);
+        } catch (DataAccessException e) {
+            // Unreported changes are sent with the next report
+            log.warn("Failed to report watcher presence", e);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package wnc.auction.backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import wnc.auction.backend.model.AutoBidMandate;
+
+@Repository
+public interface AutoBidMandateRepository extends JpaRepository<AutoBidMandate, Long> {
+
+    @Query("SELECT m FROM AutoBidMandate m WHERE m.product.id = :productId")
+    List<AutoBidMandate> findByProductId(@Param("productId") Long productId);
+
+    Optional<AutoBidMandate> findByProductIdAndUserId(Long productId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AutoBidMandate m WHERE m.product.id = :productId AND m.user.id = :userId")
+    void deleteByProductIdAndUserId(@Param("productId") Long productId, @Param("userId") Long userId);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wnc.auction.backend.model.Bid;
 import wnc.auction.backend.model.User;
+import wnc.auction.backend.repository.projection.UserContact;
 
 @Repository
 public interface BidRepository extends JpaRepository<Bid, Long> {
@@ -32,20 +33,21 @@ public interface BidRepository extends JpaRepository<Bid, Long> {
     @Query("SELECT b FROM Bid b WHERE b.product.id = :productId " + "ORDER BY b.amount DESC, b.createdAt ASC")
     List<Bid> findTop2BidsForProduct(@Param("productId") Long productId, Pageable pageable);
 
-    // Find people enabled Auto-bid
-    @Query("SELECT b FROM Bid b WHERE b.product.id = :productId AND b.user.id <> :userId AND b.isAutoBid = true")
-    List<Bid> findByProductAndUserNotAndIsAutoBidTrue(@Param("productId") Long productId, @Param("userId") Long userId);
+    // Auto-bids placed before mandates existed (oldest first)
+    @Query("SELECT b FROM Bid b WHERE b.product.id = :productId AND b.isAutoBid = true "
+            + "AND b.maxAutoBidAmount IS NOT NULL ORDER BY b.createdAt ASC")
+    List<Bid> findAutoBidsByProductId(@Param("productId") Long productId);
 
     // Get paginated ranking (Highest Amount first, then Earliest Time)
     @Query("SELECT b FROM Bid b WHERE b.product.id = :productId ORDER BY b.amount DESC, b.createdAt ASC")
     Page<Bid> findByProductOrderByAmountDesc(@Param("productId") Long productId, Pageable pageable);
 
-    @Query("SELECT b FROM Bid b " + "WHERE b.product.id = :productId " + "AND b.amount = ("
-            + "SELECT MAX(b2.amount) " + "FROM Bid b2 " + "WHERE b2.product.id = :productId "
-            + "AND b2.user.id = b.user.id" + ") " + "ORDER BY b.amount DESC, b.createdAt ASC")
-    Page<Bid> findBidRankingByProduct(@Param("productId") Long productId, Pageable pageable);
-
     // Get all distinct users who bid on a product
     @Query("SELECT DISTINCT b.user FROM Bid b WHERE b.product.id = :productId")
     List<User> findDistinctBiddersByProductId(@Param("productId") Long productId);
+
+    // Email and locale columns of everyone who bid on a product, in one query
+    @Query("SELECT DISTINCT new wnc.auction.backend.repository.projection.UserContact("
+            + "u.id, u.email, u.preferredLanguage, u.region) FROM Bid b JOIN b.user u WHERE b.product.id = :productId")
+    List<UserContact> findBidderContactsByProductId(@Param("productId") Long productId);
 }
@@ -17,4 +17,7 @@ public interface BlockedBidderRepository extends JpaRepository<BlockedBidder, Lo
 
     @Query("SELECT bb FROM BlockedBidder bb WHERE bb.product.id = :productId")
     List<BlockedBidder> findByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT bb.bidder.id FROM BlockedBidder bb WHERE bb.product.id = :productId")
+    List<Long> findBidderIdsByProductId(@Param("productId") Long productId);
 }
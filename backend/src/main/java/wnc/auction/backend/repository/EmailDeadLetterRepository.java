@@ -0,0 +1,8 @@
+package wnc.auction.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import wnc.auction.backend.model.EmailDeadLetter;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {}
@@ -0,0 +1,35 @@
+package wnc.auction.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import wnc.auction.backend.model.EmailMessage;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+
+@Repository
+public interface EmailMessageRepository extends JpaRepository<EmailMessage, Long> {
+
+    // Due emails of one lane plus claims abandoned by a crashed worker; rows locked by another node are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")})
+    @Query("SELECT m FROM EmailMessage m WHERE m.priority = :priority AND ("
+            + "(m.status = 'PENDING' AND m.nextAttemptAt <= :now) "
+            + "OR (m.status = 'PROCESSING' AND m.claimedAt < :staleBefore)) ORDER BY m.id")
+    List<EmailMessage> findClaimable(
+            @Param("priority") EmailPriority priority,
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EmailMessage m WHERE m.status = 'SENT' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,30 @@
+package wnc.auction.backend.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import wnc.auction.backend.model.InboxNotification;
+
+@Repository
+public interface InboxNotificationRepository extends JpaRepository<InboxNotification, Long> {
+
+    // Keyset pages, newest first
+    List<InboxNotification> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+
+    List<InboxNotification> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long before, Limit limit);
+
+    long countByUserIdAndIsReadFalse(Long userId);
+
+    @Modifying
+    @Query(
+            "UPDATE InboxNotification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
+    int markAsRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE InboxNotification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
+}
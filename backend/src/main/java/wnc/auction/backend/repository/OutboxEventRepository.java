@@ -0,0 +1,40 @@
+package wnc.auction.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import wnc.auction.backend.model.OutboxEvent;
+import wnc.auction.backend.model.enumeration.OutboxStatus;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByDedupKey(String dedupKey);
+
+    // Due events plus claims abandoned by a crashed worker; rows locked by another node are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")})
+    @Query("SELECT e FROM OutboxEvent e WHERE (e.status = 'PENDING' AND e.nextAttemptAt <= :now) "
+            + "OR (e.status = 'PROCESSING' AND e.claimedAt < :staleBefore) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(
+            @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    // Locked so the relay cannot claim the event while a later one is merged into it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.coalesceKey = :coalesceKey AND e.status = 'PENDING' ORDER BY e.id")
+    List<OutboxEvent> findPendingByCoalesceKey(@Param("coalesceKey") String coalesceKey);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status IN ('PENDING', 'PROCESSING')")
+    LocalDateTime findOldestUndeliveredCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'SENT' AND e.processedAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,13 @@
 package wnc.auction.backend.repository;
 
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,6 +17,11 @@ import wnc.auction.backend.model.enumeration.ProductStatus;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Row lock for bid lanes (guards against writers on other nodes)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
     // Find active products
     @Query("SELECT p FROM Product p WHERE " + "p.status = 'ACTIVE' AND p.endTime > :now")
     Page<Product> findActiveProducts(@Param("now") LocalDateTime now, Pageable pageable);
@@ -11,12 +11,18 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import wnc.auction.backend.model.User;
 import wnc.auction.backend.model.enumeration.UserRole;
+import wnc.auction.backend.repository.projection.UserProfile;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT new wnc.auction.backend.repository.projection.UserProfile(u.id, u.email, u.fullName, "
+            + "u.preferredLanguage, u.region, u.role, u.positiveRatings, u.negativeRatings, u.isActive, "
+            + "u.bidEmailDigest) FROM User u WHERE u.id = :id")
+    Optional<UserProfile> findProfileById(@Param("id") Long id);
+
     boolean existsByEmail(String email);
 
     List<User> findByRole(UserRole role);
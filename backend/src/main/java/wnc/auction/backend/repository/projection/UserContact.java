@@ -0,0 +1,6 @@
+package wnc.auction.backend.repository.projection;
+
+/**
+ * The columns of a user needed to address an email to them, loaded without the entity and its associations.
+ */
+public record UserContact(Long id, String email, String preferredLanguage, String region) {}
@@ -0,0 +1,19 @@
+package wnc.auction.backend.repository.projection;
+
+import wnc.auction.backend.model.enumeration.UserRole;
+
+/**
+ * Slim, immutable view of a user for the paths that only need to address, greet or authenticate them. Cached by
+ * {@link wnc.auction.backend.cache.UserProfileCache}.
+ */
+public record UserProfile(
+        Long id,
+        String email,
+        String fullName,
+        String preferredLanguage,
+        String region,
+        UserRole role,
+        Integer positiveRatings,
+        Integer negativeRatings,
+        Boolean isActive,
+        Boolean bidEmailDigest) {}
@@ -1,6 +1,14 @@
 package wnc.auction.backend.scheduler.job;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,13 +17,15 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.engine.AutoBidMandateStore;
+import wnc.auction.backend.engine.BidSequencer;
 import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
 import wnc.auction.backend.model.enumeration.ProductStatus;
-import wnc.auction.backend.repository.BidRepository;
+import wnc.auction.backend.outbox.OutboxPublisher;
 import wnc.auction.backend.repository.ProductRepository;
-import wnc.auction.backend.service.EmailService;
-import wnc.auction.backend.service.NotificationService;
+import wnc.auction.backend.service.AuctionSchedulerService;
 import wnc.auction.backend.service.TransactionService;
 
 @Component
@@ -24,20 +34,42 @@ import wnc.auction.backend.service.TransactionService;
 public class AuctionClosingJob extends QuartzJobBean {
 
     private final ProductRepository productRepository;
-    private final EmailService emailService;
-    private final NotificationService notificationService;
     private final TransactionService transactionService;
-    private final BidRepository bidRepository;
+    private final BidSequencer bidSequencer;
+    private final AutoBidMandateStore autoBidMandateStore;
+    private final OutboxPublisher outboxPublisher;
+    private final AuctionSchedulerService auctionSchedulerService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
 
     @Override
-    @Transactional
     protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
         JobDataMap dataMap = context.getJobDetail().getJobDataMap();
         Long productId = dataMap.getLong("productId");
 
         log.info("Quartz Job: Executing auction closure for product ID: {}", productId);
 
-        Optional<Product> productOpt = productRepository.findById(productId);
+        close(productId, LocalDateTime.ofInstant(context.getScheduledFireTime().toInstant(), clock.getZone()));
+    }
+
+    /**
+     * Close the auction if it is still active and was not extended past {@code scheduledFor}. Runs on the
+     * product's bid lane so a last-second bid cannot interleave with the closure.
+     *
+     * @param scheduledFor end time the closing trigger was set for
+     */
+    public void close(Long productId, LocalDateTime scheduledFor) {
+        bidSequencer.execute(
+                productId,
+                () -> transactionTemplate.execute(status -> {
+                    closeAuction(productId, scheduledFor);
+                    return null;
+                }));
+    }
+
+    private void closeAuction(Long productId, LocalDateTime scheduledFor) {
+        Optional<Product> productOpt = productRepository.findByIdForUpdate(productId);
         if (productOpt.isEmpty()) {
             log.warn("Product {} not found during job execution", productId);
             return;
@@ -51,9 +83,27 @@ public class AuctionClosingJob extends QuartzJobBean {
             return;
         }
 
+        // A bid queued ahead of this job extended the auction. The fired trigger is removed after this run and the
+        // bid's AUCTION_RESCHEDULE event may arrive later or not at all, so the close is re-armed from here.
+        // Trigger times are java.util.Dates, so the end time is compared at millisecond precision.
+        if (product.getEndTime().truncatedTo(ChronoUnit.MILLIS).isAfter(scheduledFor)) {
+            log.info("Product {} was extended to {}, not closing yet", productId, product.getEndTime());
+            auctionSchedulerService.rescheduleAuctionClose(productId, product.getEndTime());
+            return;
+        }
+
+        // How late the closure runs compared to the (possibly extended) end time
+        Duration lag = Duration.between(product.getEndTime(), LocalDateTime.now(clock));
+        Timer.builder("auction.closing.lag")
+                .description("Delay between an auction's end time and its closure")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+
         // Close the auction
         product.setStatus(ProductStatus.COMPLETED);
         productRepository.save(product);
+        autoBidMandateStore.evict(productId);
 
         // If win then create transaction
         if (product.getCurrentBidder() != null) {
@@ -71,53 +121,58 @@ public class AuctionClosingJob extends QuartzJobBean {
         log.info("Auction {} closed successfully via Quartz.", productId);
     }
 
+    // Notifications go through the outbox so the lane is not held up by SMTP
     private void handleNotifications(Product product) {
         BigDecimal finalPrice = product.getCurrentPrice();
-        String productName = product.getName();
         Long sellerId = product.getSeller().getId();
 
         if (product.getCurrentBidder() != null) {
             Long winnerId = product.getCurrentBidder().getId();
 
             // Notify Winner
-            emailService.sendAuctionEndedNotification(
-                    winnerId, product.getId(), productName, true, finalPrice.toString());
-            notificationService.notifyAuctionEnded(winnerId, product.getId(), productName, true, finalPrice);
+            publishAuctionEnded(product, winnerId, true, finalPrice);
 
             // Notify Seller (Success)
-            emailService.sendAuctionEndedNotification(
-                    sellerId, product.getId(), productName, false, finalPrice.toString());
-            notificationService.notifyAuctionEnded(sellerId, product.getId(), productName, false, finalPrice);
+            publishAuctionEnded(product, sellerId, false, finalPrice);
 
             // Notify all other participants who placed bids
             notifyAllParticipants(product, winnerId, sellerId, finalPrice);
         } else {
             // Notify Seller (Fail - No bids)
-            emailService.sendAuctionEndedNotification(sellerId, product.getId(), productName, false, "0");
-            notificationService.notifyAuctionEnded(sellerId, product.getId(), productName, false, BigDecimal.ZERO);
+            publishAuctionEnded(product, sellerId, false, BigDecimal.ZERO);
         }
     }
 
+    private void publishAuctionEnded(Product product, Long userId, boolean isWinner, BigDecimal finalPrice) {
+        Map<String, Object> payload = Map.of(
+                "userId", userId,
+                "productId", product.getId(),
+                "productName", product.getName(),
+                "winner", isWinner,
+                "finalAmount", finalPrice.toPlainString());
+
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_EMAIL,
+                product.getId(),
+                "auction-ended-email:" + product.getId() + ":" + userId,
+                payload);
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_NOTIFICATION,
+                product.getId(),
+                "auction-ended:" + product.getId() + ":" + userId,
+                payload);
+    }
+
+    // One outbox event for all other bidders; the emails are rendered once per locale and queued together
     private void notifyAllParticipants(Product product, Long winnerId, Long sellerId, BigDecimal finalPrice) {
-        // Get all distinct bidders for this product
-        var allBidders = bidRepository.findDistinctBiddersByProductId(product.getId());
-
-        // Send email to all bidders except winner and seller
-        allBidders.stream()
-                .filter(bidder ->
-                        !bidder.getId().equals(winnerId) && !bidder.getId().equals(sellerId))
-                .forEach(bidder -> {
-                    try {
-                        emailService.sendAuctionEndedNotification(
-                                bidder.getId(),
-                                product.getId(),
-                                product.getName(),
-                                false, // They didn't win
-                                finalPrice.toString());
-                        log.info("Sent auction ended notification to participant: {}", bidder.getId());
-                    } catch (Exception e) {
-                        log.error("Failed to send auction ended notification to participant: {}", bidder.getId(), e);
-                    }
-                });
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_PARTICIPANTS_EMAIL,
+                product.getId(),
+                "auction-ended-participants-email:" + product.getId(),
+                Map.of(
+                        "productId", product.getId(),
+                        "productName", product.getName(),
+                        "finalAmount", finalPrice.toPlainString(),
+                        "excludedUserIds", List.of(winnerId, sellerId)));
     }
 }
@@ -8,6 +8,7 @@ import org.quartz.JobExecutionException;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.model.User;
 import wnc.auction.backend.model.enumeration.UserRole;
 import wnc.auction.backend.repository.UserRepository;
@@ -21,6 +22,7 @@ import wnc.auction.backend.service.ProductService;
 public class SellerRoleExpirationJob extends QuartzJobBean {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final ProductService productService;
     private final NotificationService notificationService;
     private final EmailService emailService;
@@ -44,6 +46,7 @@ public class SellerRoleExpirationJob extends QuartzJobBean {
             user.setRole(UserRole.BIDDER);
             user.setRoleExpirationDate(null); // Clear expiration
             userRepository.save(user);
+            userProfileCache.invalidate(userId);
             log.info("User {} downgraded to BIDDER successfully.", userId);
 
             // Exception Handling: Cancel all ACTIVE products
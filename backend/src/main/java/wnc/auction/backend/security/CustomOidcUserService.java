@@ -14,6 +14,7 @@ import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.exception.ConflictException;
 import wnc.auction.backend.exception.OAuth2DuplicateEmailException;
 import wnc.auction.backend.model.SocialAccount;
@@ -30,6 +31,7 @@ import wnc.auction.backend.utils.Constants;
 public class CustomOidcUserService extends OidcUserService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final SocialAccountRepository socialAccountRepository;
 
     @Override
@@ -239,6 +241,7 @@ public class CustomOidcUserService extends OidcUserService {
     private void updateExistingUser(User user, OidcUser oidcUser) {
         user.setFullName(oidcUser.getFullName());
         userRepository.save(user);
+        userProfileCache.invalidate(user.getId());
     }
 
     /**
@@ -5,14 +5,17 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.model.User;
 import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.repository.projection.UserProfile;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -23,10 +26,11 @@ public class CustomUserDetailsService implements UserDetailsService {
         return UserPrincipal.create(user);
     }
 
+    // Called for every authenticated request, so it reads the cached profile instead of the user row
     public UserDetails loadUserById(Long id) {
-        User user =
-                userRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException("User not found: " + id));
+        UserProfile profile =
+                userProfileCache.get(id).orElseThrow(() -> new UsernameNotFoundException("User not found: " + id));
 
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(profile);
     }
 }
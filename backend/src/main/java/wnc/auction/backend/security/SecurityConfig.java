@@ -63,7 +63,9 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/api-docs/**",
                                 "/v3/api-docs/**",
-                                "/actuator/**")
+                                "/actuator/**",
+                                // WebSocket handshakes carry the token as a query parameter, checked by the endpoint
+                                "/ws/**")
                         .permitAll()
 
                         // Bidder endpoints
@@ -100,7 +102,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of(allowHosts));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "x-auth-token"));
+        configuration.setAllowedHeaders(
+                Arrays.asList("Authorization", "Content-Type", "x-auth-token", "Idempotency-Key", "Last-Event-ID"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -16,6 +16,7 @@ import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import wnc.auction.backend.model.User;
+import wnc.auction.backend.repository.projection.UserProfile;
 
 @Data
 @AllArgsConstructor
@@ -47,6 +48,19 @@ public class UserPrincipal implements UserDetails, OAuth2User, OidcUser {
                 .build();
     }
 
+    // Token-authenticated principal; the password is not needed once the token is verified
+    public static UserPrincipal create(UserProfile profile) {
+        List<GrantedAuthority> authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + profile.role().name()));
+
+        return UserPrincipal.builder()
+                .id(profile.id())
+                .email(profile.email())
+                .role(profile.role().name())
+                .authorities(authorities)
+                .build();
+    }
+
     public static UserPrincipal create(User user, Map<String, Object> attributes) {
         UserPrincipal userPrincipal = UserPrincipal.create(user);
         userPrincipal.setAttributes(attributes);
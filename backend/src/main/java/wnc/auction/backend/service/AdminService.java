@@ -14,6 +14,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.dto.model.UserDto;
 import wnc.auction.backend.dto.response.AuctionConfigResponse;
 import wnc.auction.backend.dto.response.ChartDataPoint;
@@ -36,6 +37,7 @@ import wnc.auction.backend.repository.*;
 public class AdminService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final ProductRepository productRepository;
     private final TransactionRepository transactionRepository;
     private final CategoryRepository categoryRepository;
@@ -190,6 +192,7 @@ public class AdminService {
         // Soft delete by marking as inactive
         user.setIsActive(false);
         userRepository.save(user);
+        userProfileCache.invalidate(userId);
 
         log.info("User {} (email: {}) deleted by admin", userId, user.getEmail());
     }
@@ -19,7 +19,7 @@ public class AuctionSchedulerService {
     public void scheduleAuctionClose(Long productId, LocalDateTime endTime) {
         try {
             JobDetail jobDetail = buildJobDetail(productId);
-            Trigger trigger = buildJobTrigger(jobDetail, endTime);
+            Trigger trigger = buildJobTrigger(productId, endTime);
 
             scheduler.scheduleJob(jobDetail, trigger);
             log.info("Scheduled close job for product {} at {}", productId, endTime);
@@ -31,7 +31,7 @@ public class AuctionSchedulerService {
     // Reschedule the job (used for Auto-Extend feature)
     public void rescheduleAuctionClose(Long productId, LocalDateTime newEndTime) {
         try {
-            TriggerKey triggerKey = TriggerKey.triggerKey("trigger_" + productId, "auction-triggers");
+            TriggerKey triggerKey = triggerKey(productId);
 
             // Check if trigger exists
             if (scheduler.checkExists(triggerKey)) {
@@ -42,6 +42,10 @@ public class AuctionSchedulerService {
 
                 scheduler.rescheduleJob(triggerKey, newTrigger);
                 log.info("Rescheduled close job for product {} to {}", productId, newEndTime);
+            } else if (scheduler.checkExists(jobKey(productId))) {
+                // The job is durable and outlives its fired trigger, so only a new trigger is added for it
+                scheduler.scheduleJob(buildJobTrigger(productId, newEndTime));
+                log.info("Scheduled new close trigger for product {} at {}", productId, newEndTime);
             } else {
                 // If job doesn't exist (e.g. server restart without persistence), create new
                 scheduleAuctionClose(productId, newEndTime);
@@ -56,22 +60,30 @@ public class AuctionSchedulerService {
         jobDataMap.put("productId", productId);
 
         return JobBuilder.newJob(AuctionClosingJob.class)
-                .withIdentity("auction_" + productId, "auction-jobs")
+                .withIdentity(jobKey(productId))
                 .withDescription("Close Auction Job")
                 .usingJobData(jobDataMap)
                 .storeDurably()
                 .build();
     }
 
-    private Trigger buildJobTrigger(JobDetail jobDetail, LocalDateTime endTime) {
+    private Trigger buildJobTrigger(Long productId, LocalDateTime endTime) {
         return TriggerBuilder.newTrigger()
-                .forJob(jobDetail)
-                .withIdentity("trigger_" + jobDetail.getKey().getName().substring(8), "auction-triggers")
+                .forJob(jobKey(productId))
+                .withIdentity(triggerKey(productId))
                 .startAt(convertToDate(endTime))
                 .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
                 .build();
     }
 
+    private static JobKey jobKey(Long productId) {
+        return JobKey.jobKey("auction_" + productId, "auction-jobs");
+    }
+
+    private static TriggerKey triggerKey(Long productId) {
+        return TriggerKey.triggerKey("trigger_" + productId, "auction-triggers");
+    }
+
     private Date convertToDate(LocalDateTime localDateTime) {
         return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
     }
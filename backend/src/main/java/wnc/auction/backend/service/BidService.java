@@ -1,19 +1,36 @@
 package wnc.auction.backend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.cache.BlockedBidderIndex;
+import wnc.auction.backend.cache.IdempotencyCache;
 import wnc.auction.backend.dto.model.BidDto;
 import wnc.auction.backend.dto.model.BidHistoryDto;
 import wnc.auction.backend.dto.request.PlaceBidRequest;
+import wnc.auction.backend.dto.response.BidTicketResponse;
 import wnc.auction.backend.dto.response.PageResponse;
+import wnc.auction.backend.engine.AutoBidBook;
+import wnc.auction.backend.engine.AutoBidMandateStore;
+import wnc.auction.backend.engine.BidLeaderboard;
+import wnc.auction.backend.engine.BidSequencer;
+import wnc.auction.backend.exception.AuctionException;
 import wnc.auction.backend.exception.BadRequestException;
 import wnc.auction.backend.exception.ForbiddenException;
 import wnc.auction.backend.exception.NotFoundException;
@@ -22,13 +39,17 @@ import wnc.auction.backend.model.Bid;
 import wnc.auction.backend.model.BlockedBidder;
 import wnc.auction.backend.model.Product;
 import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.OutboxEventType;
 import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.outbox.BidEmailCoalescer;
+import wnc.auction.backend.outbox.OutboxPublisher;
 import wnc.auction.backend.repository.BidRepository;
 import wnc.auction.backend.repository.BlockedBidderRepository;
 import wnc.auction.backend.repository.ProductRepository;
 import wnc.auction.backend.repository.UserRepository;
 import wnc.auction.backend.security.CurrentUser;
 import wnc.auction.backend.utils.Constants;
+import wnc.auction.backend.utils.MessagesUtils;
 
 @Service
 @RequiredArgsConstructor
@@ -40,24 +61,113 @@ public class BidService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final BlockedBidderRepository blockedBidderRepository;
-    private final EmailService emailService;
+    private final BlockedBidderIndex blockedBidderIndex;
     private final NotificationService notificationService;
-    private final AuctionSchedulerService auctionSchedulerService;
     private final TransactionService transactionService;
     private final SystemConfigService systemConfigService;
+    private final BidSequencer bidSequencer;
+    private final AutoBidMandateStore autoBidMandateStore;
+    private final BidLeaderboard bidLeaderboard;
+    private final OutboxPublisher outboxPublisher;
+    private final BidEmailCoalescer bidEmailCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyCache idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
 
     private static final String CONFIG_EXTEND_THRESHOLD = "AUCTION_EXTEND_THRESHOLD";
     private static final String CONFIG_EXTEND_DURATION = "AUCTION_EXTEND_DURATION";
 
-    public BidDto placeBid(PlaceBidRequest request) {
-        // Fetch User and Product
+    // No transaction on the caller thread: the bid lane opens and commits its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BidDto placeBid(PlaceBidRequest request, String idempotencyKey) {
+        // Resolve the caller here, the security context is not visible on the lane thread
+        Long bidderId = CurrentUser.getUserId();
+
+        // A retried request with the same key gets the original bid back (covers buy-now, which is a bid too)
+        return idempotencyCache.execute(
+                "place-bid",
+                bidderId,
+                idempotencyKey,
+                BidDto.class,
+                () -> bidSequencer.execute(
+                        request.getProductId(),
+                        () -> transactionTemplate.execute(status -> doPlaceBid(bidderId, request))));
+    }
+
+    /**
+     * Queue the bid on its product lane and return immediately. The outcome is pushed to the bidder's
+     * notification stream as a "bid_result" event carrying the returned ticket ID.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BidTicketResponse submitBid(PlaceBidRequest request, String idempotencyKey) {
         Long bidderId = CurrentUser.getUserId();
+
+        return idempotencyCache.execute(
+                "submit-bid", bidderId, idempotencyKey, BidTicketResponse.class, () -> enqueueBid(bidderId, request));
+    }
+
+    private BidTicketResponse enqueueBid(Long bidderId, PlaceBidRequest request) {
+        String ticketId = UUID.randomUUID().toString();
+        long enqueuedAt = System.nanoTime();
+
+        bidSequencer.submit(request.getProductId(), () -> {
+            long startedAt = System.nanoTime();
+            Timer.builder("auction.bid.async.queue.time")
+                    .description("Time an asynchronously submitted bid waited before processing")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("ticketId", ticketId);
+            result.put("productId", request.getProductId());
+            String outcome;
+            try {
+                BidDto bid = transactionTemplate.execute(status -> doPlaceBid(bidderId, request));
+                outcome = "ACCEPTED";
+                result.put("bid", bid);
+            } catch (AuctionException e) {
+                outcome = "REJECTED";
+                result.put("message", e.getMessage());
+                log.info("Async bid {} on product {} rejected: {}", ticketId, request.getProductId(), e.getMessage());
+            } catch (RuntimeException e) {
+                // Like the exception handler: internal errors are logged, the bidder only gets a generic message
+                outcome = "REJECTED";
+                result.put("code", Constants.ErrorCode.BID_PROCESSING_FAILED);
+                result.put("message", MessagesUtils.getMessage(Constants.ErrorCode.BID_PROCESSING_FAILED));
+                log.error("Async bid {} on product {} failed", ticketId, request.getProductId(), e);
+            }
+            result.put("status", outcome);
+            result.put("timestamp", LocalDateTime.now(clock).toString());
+
+            Timer.builder("auction.bid.async.processing.time")
+                    .description("Time spent processing an asynchronously submitted bid")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+            notificationService.sendUserNotification(bidderId, "bid_result", result);
+            return null;
+        });
+
+        return BidTicketResponse.builder()
+                .ticketId(ticketId)
+                .productId(request.getProductId())
+                .status("QUEUED")
+                .queuedAt(LocalDateTime.now(clock))
+                .build();
+    }
+
+    private BidDto doPlaceBid(Long bidderId, PlaceBidRequest request) {
+        // Fetch User and Product
         User bidder = userRepository
                 .findById(bidderId)
                 .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.USER_NOT_FOUND));
 
         Product product = productRepository
-                .findById(request.getProductId())
+                .findByIdForUpdate(request.getProductId())
                 .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND));
 
         // Validate (Updated to allow current winner to update Auto-Bid)
@@ -84,6 +194,11 @@ public class BidService {
         // Get previous highest bidder for notification
         User previousBidder = product.getCurrentBidder();
 
+        // Record the bidder's auto-bid limit before resolving against competitors
+        if (isAutoBid) {
+            autoBidMandateStore.upsert(product, bidder, request.getMaxAutoBidAmount());
+        }
+
         // Save the Manual Bid
         Bid bid = createAndSaveBid(product, bidder, bidAmount, request.getMaxAutoBidAmount(), isAutoBid);
 
@@ -92,7 +207,7 @@ public class BidService {
 
         // Send Notifications for the manual bid
         // Ensure the manual bidder gets confirmation
-        sendBidNotifications(product, bidder, previousBidder, bidAmount);
+        sendBidNotifications(product, bid, previousBidder);
 
         // Trigger Reactive Auto-Bidding
         // Check if any previous bidders have an auto-bid that beats this new bid
@@ -110,14 +225,19 @@ public class BidService {
 
         // Close the auction immediately
         product.setStatus(ProductStatus.COMPLETED);
-        product.setEndTime(LocalDateTime.now()); // Update end time to now
+        product.setEndTime(LocalDateTime.now(clock)); // Update end time to now
         productRepository.save(product);
 
         // If win then create transaction
         transactionService.createTransaction(product.getId());
 
         // Unschedule the pending closing job (Important to avoid double processing)
-        auctionSchedulerService.unscheduleAuctionClose(product.getId());
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_UNSCHEDULE,
+                product.getId(),
+                "auction-unschedule:" + product.getId(),
+                Map.of("productId", product.getId()));
+        autoBidMandateStore.evict(product.getId());
 
         // Send Immediate Notifications (Winner & Seller)
         handleAuctionEndNotifications(product, bidder, amount);
@@ -127,47 +247,60 @@ public class BidService {
         return BidMapper.toDto(bid);
     }
 
+    // Side effects are written to the outbox and delivered once the bid commits
     private void handleAuctionEndNotifications(Product product, User winner, BigDecimal finalAmount) {
         // Notify Winner
-        emailService.sendAuctionEndedNotification(
-                winner.getId(), product.getId(), product.getName(), true, finalAmount.toString());
-        notificationService.notifyAuctionEnded(winner.getId(), product.getId(), product.getName(), true, finalAmount);
+        publishAuctionEnded(product, winner.getId(), true, finalAmount);
 
         // Notify Seller
-        emailService.sendAuctionEndedNotification(
-                product.getSeller().getId(), product.getId(), product.getName(), false, finalAmount.toString());
-        notificationService.notifyAuctionEnded(
-                product.getSeller().getId(), product.getId(), product.getName(), false, finalAmount);
+        publishAuctionEnded(product, product.getSeller().getId(), false, finalAmount);
 
         // Notify all other participants who placed bids
         notifyAllParticipants(product, winner.getId(), product.getSeller().getId(), finalAmount);
 
         // Broadcast to everyone watching the product (Public Product Stream)
-        notificationService.broadcastAuctionEnded(
-                product.getId(), product.getName(), winner.getFullName(), finalAmount);
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_CLOSED_BROADCAST,
+                product.getId(),
+                "auction-closed:" + product.getId(),
+                Map.of(
+                        "productId", product.getId(),
+                        "productName", product.getName(),
+                        "winnerName", winner.getFullName(),
+                        "finalAmount", finalAmount.toPlainString()));
+    }
+
+    private void publishAuctionEnded(Product product, Long userId, boolean isWinner, BigDecimal finalAmount) {
+        Map<String, Object> payload = Map.of(
+                "userId", userId,
+                "productId", product.getId(),
+                "productName", product.getName(),
+                "winner", isWinner,
+                "finalAmount", finalAmount.toPlainString());
+
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_EMAIL,
+                product.getId(),
+                "auction-ended-email:" + product.getId() + ":" + userId,
+                payload);
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_NOTIFICATION,
+                product.getId(),
+                "auction-ended:" + product.getId() + ":" + userId,
+                payload);
     }
 
+    // One outbox event for all other bidders; the emails are rendered once per locale and queued together
     private void notifyAllParticipants(Product product, Long winnerId, Long sellerId, BigDecimal finalAmount) {
-        // Get all distinct bidders for this product
-        List<User> allBidders = bidRepository.findDistinctBiddersByProductId(product.getId());
-
-        // Send email to all bidders except winner and seller
-        allBidders.stream()
-                .filter(bidder ->
-                        !bidder.getId().equals(winnerId) && !bidder.getId().equals(sellerId))
-                .forEach(bidder -> {
-                    try {
-                        emailService.sendAuctionEndedNotification(
-                                bidder.getId(),
-                                product.getId(),
-                                product.getName(),
-                                false, // They didn't win
-                                finalAmount.toString());
-                        log.info("Sent auction ended notification to participant: {}", bidder.getId());
-                    } catch (Exception e) {
-                        log.error("Failed to send auction ended notification to participant: {}", bidder.getId(), e);
-                    }
-                });
+        outboxPublisher.publish(
+                OutboxEventType.AUCTION_ENDED_PARTICIPANTS_EMAIL,
+                product.getId(),
+                "auction-ended-participants-email:" + product.getId(),
+                Map.of(
+                        "productId", product.getId(),
+                        "productName", product.getName(),
+                        "finalAmount", finalAmount.toPlainString(),
+                        "excludedUserIds", List.of(winnerId, sellerId)));
     }
 
     private Bid createAndSaveBid(Product product, User bidder, BigDecimal amount, BigDecimal maxAuto, Boolean isAuto) {
@@ -187,58 +320,35 @@ public class BidService {
         product.setBidCount(product.getBidCount() + 1);
         productRepository.save(product);
 
-        // Emit real-time event via Socket
-        notificationService.sendBidUpdate(product.getId(), amount, bidder.getFullName());
+        // Update the leaderboard and emit the real-time event once the bid is committed
+        Long productId = product.getId();
+        Bid committedBid = bid;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bidLeaderboard.record(productId, committedBid);
+                notificationService.sendBidUpdate(productId, amount, bidder.getFullName(), product.getEndTime());
+            }
+        });
 
         return bid;
     }
 
     private void triggerReactiveAutoBid(Product product, Bid incomingBid) {
-        // Fetch list of blocked user IDs for this product
-        List<Long> blockedUserIds = blockedBidderRepository.findByProductId(product.getId()).stream()
-                .map(blocked -> blocked.getBidder().getId())
-                .toList();
-
-        // Fetch competitor list (all history with auto-bid enabled)
-        List<Bid> allCompetitorBids = bidRepository.findByProductAndUserNotAndIsAutoBidTrue(
+        // Strongest mandate held by someone else (blocked bidders have no mandate)
+        Optional<AutoBidBook.Mandate> strongest = autoBidMandateStore.strongestCompetitor(
                 product.getId(), incomingBid.getUser().getId());
 
-        if (allCompetitorBids.isEmpty()) return;
-
-        // Filter list: Keep only the LATEST Auto-Bid per user (Fix Zombie Bid issue)
-        // AND exclude blocked users
-        Map<Long, Bid> uniqueCompetitors = new HashMap<>();
-        for (Bid b : allCompetitorBids) {
-            // Skip blocked users
-            if (blockedUserIds.contains(b.getUser().getId())) {
-                continue;
-            }
-
-            // Keep the bid with the latest creation date for each user
-            if (!uniqueCompetitors.containsKey(b.getUser().getId())
-                    || b.getCreatedAt()
-                            .isAfter(uniqueCompetitors.get(b.getUser().getId()).getCreatedAt())) {
-                uniqueCompetitors.put(b.getUser().getId(), b);
-            }
-        }
-
-        if (uniqueCompetitors.isEmpty()) return;
+        if (strongest.isEmpty()) return;
 
         // Identify User A (Current bidder) and User B (Strongest current competitor)
         User currentUser = incomingBid.getUser();
         BigDecimal currentMax = incomingBid.getMaxAutoBidAmount(); // Can be null if it's a manual bid
 
-        // Find the competitor with the highest Max Auto Bid
-        Bid strongestCompetitorBid = uniqueCompetitors.values().stream()
-                .max(Comparator.comparing(Bid::getMaxAutoBidAmount))
-                .orElse(null);
-
-        if (strongestCompetitorBid == null) {
-            return;
-        }
-
-        User competitor = strongestCompetitorBid.getUser();
-        BigDecimal competitorMax = strongestCompetitorBid.getMaxAutoBidAmount();
+        User competitor = userRepository
+                .findById(strongest.get().userId())
+                .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.USER_NOT_FOUND));
+        BigDecimal competitorMax = strongest.get().maxAmount();
 
         // Compare to determine the final winner
         // We compare: Max of current bidder vs Max of competitor
@@ -286,15 +396,14 @@ public class BidService {
             // Note: If winner is currentUser, we theoretically should update their existing
             // bid or create new.
             // Here we create a new one to simplify history logic.
-            createAndSaveBid(product, winner, finalPrice, winnerMax, true);
+            Bid winningBid = createAndSaveBid(product, winner, finalPrice, winnerMax, true);
 
             // Check Auto-Extend and Schedule
             checkAndTriggerAutoExtend(product);
 
             // Notify the loser (The one who was just outbid)
             User loser = (winner.getId().equals(currentUser.getId())) ? competitor : currentUser;
-            emailService.sendOutbidNotification(
-                    loser.getId(), product.getId(), product.getName(), finalPrice.toString());
+            publishOutbid(product, winningBid, loser.getId());
         }
     }
 
@@ -305,7 +414,7 @@ public class BidService {
             int threshold = systemConfigService.getIntConfig(CONFIG_EXTEND_THRESHOLD, 5);
             int duration = systemConfigService.getIntConfig(CONFIG_EXTEND_DURATION, 10);
 
-            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime now = LocalDateTime.now(clock);
             LocalDateTime currentEndTime = product.getEndTime();
 
             // Use the dynamic threshold
@@ -314,7 +423,11 @@ public class BidService {
 
                 product.setEndTime(newEndTime);
                 productRepository.save(product);
-                auctionSchedulerService.rescheduleAuctionClose(product.getId(), newEndTime);
+                outboxPublisher.publish(
+                        OutboxEventType.AUCTION_RESCHEDULE,
+                        product.getId(),
+                        null,
+                        Map.of("productId", product.getId()));
 
                 log.info("Auction extended by {} minutes based on Admin config", duration);
             }
@@ -327,7 +440,7 @@ public class BidService {
             throw new BadRequestException("Product is not active");
         }
 
-        if (LocalDateTime.now().isAfter(product.getEndTime())) {
+        if (LocalDateTime.now(clock).isAfter(product.getEndTime())) {
             throw new BadRequestException("Auction has ended");
         }
 
@@ -337,7 +450,7 @@ public class BidService {
         }
 
         // Check if bidder is blocked
-        if (blockedBidderRepository.existsByProductIdAndBidderId(product.getId(), bidder.getId())) {
+        if (blockedBidderIndex.isBlocked(product.getId(), bidder.getId())) {
             throw new ForbiddenException("You are blocked from bidding on this product");
         }
 
@@ -386,51 +499,55 @@ public class BidService {
         return product.getCurrentPrice().add(product.getStepPrice());
     }
 
-    private void sendBidNotifications(Product product, User newBidder, User previousBidder, BigDecimal amount) {
-        emailService.sendBidNotification(
+    private void sendBidNotifications(Product product, Bid bid, User previousBidder) {
+        bidEmailCoalescer.publish(
+                OutboxEventType.BID_PLACED_EMAIL,
                 product.getSeller().getId(),
                 product.getId(),
-                product.getName(),
-                newBidder.getFullName(),
-                amount.toString());
+                Map.of(
+                        "userId", product.getSeller().getId(),
+                        "productId", product.getId(),
+                        "productName", product.getName(),
+                        "bidderName", bid.getUser().getFullName(),
+                        "amount", bid.getAmount().toString()));
 
         if (previousBidder != null) {
-            emailService.sendOutbidNotification(
-                    previousBidder.getId(), product.getId(), product.getName(), amount.toString());
+            publishOutbid(product, bid, previousBidder.getId());
         }
     }
 
+    private void publishOutbid(Product product, Bid outbiddingBid, Long userId) {
+        bidEmailCoalescer.publish(
+                OutboxEventType.OUTBID_EMAIL,
+                userId,
+                product.getId(),
+                Map.of(
+                        "userId", userId,
+                        "productId", product.getId(),
+                        "productName", product.getName(),
+                        "amount", outbiddingBid.getAmount().toString()));
+    }
+
     public List<BidHistoryDto> getBidHistory(Long productId) {
         Pageable pageable = PageRequest.of(0, 100);
         Page<Bid> bids = bidRepository.findByProductOrderByCreatedAtDesc(productId, pageable);
 
-        // Fetch list of blocked user IDs for this product
-        List<Long> blockedUserIds = blockedBidderRepository.findByProductId(productId).stream()
-                .map(blocked -> blocked.getBidder().getId())
-                .toList();
+        BlockedBidderIndex.BlockedSet blockedUserIds = blockedBidderIndex.get(productId);
 
-        // Get all bids sorted by amount to calculate rank (excluding blocked users)
-        List<Bid> rankedBids = bidRepository.findByProductOrderByAmountDesc(productId).stream()
+        // Filter out bids from blocked users completely
+        List<Bid> visible = bids.getContent().stream()
                 .filter(bid -> !blockedUserIds.contains(bid.getUser().getId()))
                 .toList();
 
-        Map<Long, Integer> userRankMap = new HashMap<>();
-
-        // Calculate rank for each unique user (based on their highest bid)
-        int rank = 1;
-        for (Bid bid : rankedBids) {
-            if (!userRankMap.containsKey(bid.getUser().getId())) {
-                userRankMap.put(bid.getUser().getId(), rank++);
-            }
-        }
+        // Rank of each user's highest bid, from a single read of the leaderboard
+        Map<Long, Integer> userRankMap = bidLeaderboard.ranksOf(
+                productId, visible.stream().map(bid -> bid.getUser().getId()).collect(Collectors.toSet()));
 
-        // Filter out bids from blocked users completely
-        return bids.getContent().stream()
-                .filter(bid -> !blockedUserIds.contains(bid.getUser().getId()))
+        return visible.stream()
                 .map(bid -> {
                     BidHistoryDto dto = BidMapper.toHistoryDto(bid);
                     // Set rank based on user's highest bid
-                    dto.setRank(userRankMap.getOrDefault(bid.getUser().getId(), null));
+                    dto.setRank(userRankMap.get(bid.getUser().getId()));
                     return dto;
                 })
                 .toList();
@@ -453,10 +570,23 @@ public class BidService {
                 .build();
     }
 
+    // Runs on the product's bid lane so it cannot interleave with an in-flight bid
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void blockBidder(Long productId, Long bidderId) {
         Long sellerId = CurrentUser.getUserId();
-        Product product =
-                productRepository.findById(productId).orElseThrow(() -> new NotFoundException("Product not found"));
+
+        bidSequencer.execute(
+                productId,
+                () -> transactionTemplate.execute(status -> {
+                    doBlockBidder(sellerId, productId, bidderId);
+                    return null;
+                }));
+    }
+
+    private void doBlockBidder(Long sellerId, Long productId, Long bidderId) {
+        Product product = productRepository
+                .findByIdForUpdate(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found"));
 
         if (!product.getSeller().getId().equals(sellerId)) {
             throw new ForbiddenException("You can only block bidders from your own products");
@@ -464,13 +594,24 @@ public class BidService {
 
         User bidder = userRepository.findById(bidderId).orElseThrow(() -> new NotFoundException("Bidder not found"));
 
-        if (blockedBidderRepository.existsByProductIdAndBidderId(productId, bidderId)) {
+        if (blockedBidderIndex.isBlocked(productId, bidderId)) {
             throw new BadRequestException("Bidder is already blocked");
         }
 
         BlockedBidder blockedBidder =
                 BlockedBidder.builder().product(product).bidder(bidder).build();
         blockedBidderRepository.save(blockedBidder);
+        blockedBidderIndex.invalidate(productId);
+        autoBidMandateStore.remove(productId, bidderId);
+        // After completion, so the index above has dropped its copy before leaderboard reads are told to reload
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    bidLeaderboard.remove(productId, bidderId);
+                }
+            }
+        });
 
         if (product.getCurrentBidder() != null
                 && product.getCurrentBidder().getId().equals(bidderId)) {
@@ -478,16 +619,25 @@ public class BidService {
         }
 
         // Send email notification to the blocked bidder
-        emailService.sendBidderBlockedNotification(
-                bidderId, productId, product.getName(), product.getSeller().getFullName());
+        outboxPublisher.publish(
+                OutboxEventType.BIDDER_BLOCKED_EMAIL,
+                productId,
+                "bidder-blocked:" + productId + ":" + bidderId,
+                Map.of(
+                        "userId",
+                        bidderId,
+                        "productId",
+                        productId,
+                        "productName",
+                        product.getName(),
+                        "sellerName",
+                        product.getSeller().getFullName()));
 
         log.info("Bidder {} blocked from product {}", bidderId, productId);
     }
 
     private void reassignHighestBidder(Product product) {
-        List<Long> blockedBidderIds = blockedBidderRepository.findByProductId(product.getId()).stream()
-                .map(bb -> bb.getBidder().getId())
-                .toList();
+        BlockedBidderIndex.BlockedSet blockedBidderIds = blockedBidderIndex.get(product.getId());
 
         List<Bid> allBids = bidRepository.findByProductOrderByAmountDesc(product.getId());
 
@@ -511,43 +661,29 @@ public class BidService {
         productRepository.save(product);
     }
 
+    // Ranking of each bidder's best bid, served from the materialized leaderboard
     public PageResponse<BidHistoryDto> getBidRanking(Long productId, int page, int size) {
-        // Fetch list of blocked user IDs for this product
-        List<Long> blockedUserIds = blockedBidderRepository.findByProductId(productId).stream()
-                .map(blocked -> blocked.getBidder().getId())
-                .toList();
-
-        // Get all bids excluding blocked users
-        List<Bid> allValidBids = bidRepository.findByProductOrderByAmountDesc(productId).stream()
-                .filter(bid -> !blockedUserIds.contains(bid.getUser().getId()))
-                .toList();
-
-        // Manual pagination
-        int start = page * size;
-        int end = Math.min(start + size, allValidBids.size());
-        List<Bid> pagedBids = allValidBids.subList(start, end);
-
-        // Calculate rank for each bid
-        int startRank = page * size + 1; // Starting rank for this page
-        List<BidHistoryDto> content = new ArrayList<>();
-
-        for (int i = 0; i < pagedBids.size(); i++) {
-            Bid bid = pagedBids.get(i);
-            BidHistoryDto dto = BidMapper.toHistoryDto(bid);
-            dto.setRank(startRank + i); // Assign rank based on position
-            content.add(dto);
-        }
+        List<BidHistoryDto> content = bidLeaderboard.top(productId, page * size, size);
 
-        int totalElements = allValidBids.size();
+        long totalElements = bidLeaderboard.size(productId);
         int totalPages = (int) Math.ceil((double) totalElements / size);
 
         return PageResponse.<BidHistoryDto>builder()
                 .content(content)
                 .page(page)
                 .size(size)
-                .totalElements((long) totalElements)
+                .totalElements(totalElements)
                 .totalPages(totalPages)
                 .last(page >= totalPages - 1)
                 .build();
     }
+
+    // Recovery: recompute the product's leaderboard from the bids table
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildLeaderboard(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND);
+        }
+        return bidLeaderboard.rebuild(productId);
+    }
 }
@@ -20,6 +20,7 @@ import wnc.auction.backend.model.Transaction;
 import wnc.auction.backend.model.User;
 import wnc.auction.backend.model.enumeration.MessageType;
 import wnc.auction.backend.model.enumeration.TransactionStatus;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
 import wnc.auction.backend.repository.ChatMessageRepository;
 import wnc.auction.backend.repository.TransactionRepository;
 import wnc.auction.backend.repository.UserRepository;
@@ -37,7 +38,21 @@ public class ChatService {
     private final NotificationService notificationService;
 
     public SseEmitter subscribeToChat(Long transactionId) {
+        requireParticipant(transactionId, CurrentUser.getUserId());
+
+        // Delegate to NotificationService
+        return notificationService.subscribeToChat(transactionId);
+    }
+
+    // Add a chat to the caller's multiplexed notification stream
+    public void subscribeSessionToChat(String sessionId, Long transactionId) {
         Long userId = CurrentUser.getUserId();
+        requireParticipant(transactionId, userId);
+
+        notificationService.subscribe(sessionId, userId, Scope.CHAT, transactionId, null);
+    }
+
+    private void requireParticipant(Long transactionId, Long userId) {
         Transaction transaction = transactionRepository
                 .findById(transactionId)
                 .orElseThrow(() -> new NotFoundException("Transaction not found"));
@@ -47,9 +62,6 @@ public class ChatService {
                 && !transaction.getSeller().getId().equals(userId)) {
             throw new ForbiddenException("You are not part of this transaction");
         }
-
-        // Delegate to NotificationService
-        return notificationService.subscribeToChat(transactionId);
     }
 
     // Send a chat message
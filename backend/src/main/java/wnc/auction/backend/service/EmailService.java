@@ -1,22 +1,24 @@
 package wnc.auction.backend.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.exception.AuctionException;
 import wnc.auction.backend.exception.NotFoundException;
-import wnc.auction.backend.model.User;
-import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.mail.EmailOutbox;
+import wnc.auction.backend.mail.EmailTemplates;
+import wnc.auction.backend.model.enumeration.EmailPriority;
+import wnc.auction.backend.repository.BidRepository;
+import wnc.auction.backend.repository.projection.UserContact;
+import wnc.auction.backend.repository.projection.UserProfile;
 import wnc.auction.backend.utils.Constants;
 
 @Service
@@ -24,18 +26,22 @@ import wnc.auction.backend.utils.Constants;
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
-    private final MessageSource messageSource;
+    private final EmailOutbox emailOutbox;
+    private final EmailTemplates emailTemplates;
     private final LocaleService localeService;
-    private final UserRepository userRepository;
-
-    @Value("${app.mail.from-address}")
-    private String fromAddress;
+    private final UserProfileCache userProfileCache;
+    private final BidRepository bidRepository;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
+    private record RenderedEmail(String subject, String html) {}
+
+    /**
+     * Latest state of one product in a bid digest: the user was outbid there, or (as seller) got a new bid.
+     */
+    public record BidDigestItem(Long productId, String productName, String amount, boolean outbid) {}
+
     public void sendOtpEmail(Long userId, String code, String purpose) {
         Locale locale = localeService.getLocaleByUserId(userId);
         sendOtpEmailWithLocale(getUserEmail(userId), code, purpose, locale);
@@ -61,6 +67,63 @@ public class EmailService {
                 getUserEmail(userId), productName, isWinner, finalAmount, productUrl, locale);
     }
 
+    /**
+     * Sends the auction-ended email to everyone who bid on the product except {@code excludedUserIds} (winner and
+     * seller get their own). Recipients are loaded in one query and the email is rendered once per locale.
+     */
+    public void sendAuctionEndedToParticipants(
+            Long productId, String productName, String finalAmount, Collection<Long> excludedUserIds) {
+        String productUrl = String.format("%s/products/%d", frontendUrl, productId);
+        Map<Locale, RenderedEmail> renderedByLocale = new HashMap<>();
+        List<EmailOutbox.Email> emails = new ArrayList<>();
+
+        try {
+            for (UserContact participant : bidRepository.findBidderContactsByProductId(productId)) {
+                if (excludedUserIds.contains(participant.id())) {
+                    continue;
+                }
+                // Static, so the loop does not go through the audited service proxy once per participant
+                Locale locale = LocaleService.resolve(participant.preferredLanguage(), participant.region());
+                RenderedEmail rendered = renderedByLocale.computeIfAbsent(
+                        locale, key -> renderAuctionEnded(productName, false, finalAmount, productUrl, key));
+                emails.add(new EmailOutbox.Email(participant.email(), rendered.subject(), rendered.html()));
+            }
+
+            emailOutbox.enqueueAll(emails, EmailPriority.NORMAL);
+            log.info(
+                    "Auction ended notification queued for {} participants of product {} in {} locales",
+                    emails.size(),
+                    productId,
+                    renderedByLocale.size());
+        } catch (Exception e) {
+            log.error("Failed to send auction ended notifications to participants of product {}", productId, e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
+        }
+    }
+
+    public void sendBidDigest(Long userId, List<BidDigestItem> items) {
+        Locale locale = localeService.getLocaleByUserId(userId);
+        String to = getUserEmail(userId);
+        try {
+            List<Map<String, Object>> rows = items.stream()
+                    .map(item -> Map.<String, Object>of(
+                            "productName", item.productName(),
+                            "amount", item.amount(),
+                            "outbid", item.outbid(),
+                            "productUrl", String.format("%s/products/%d", frontendUrl, item.productId())))
+                    .toList();
+
+            String htmlContent = emailTemplates.render("bid-digest", locale, Map.of("items", rows));
+            String subject = emailTemplates.subject("email.digest.subject", locale, items.size());
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Bid digest with {} products queued for: {} in locale: {}", items.size(), to, locale);
+        } catch (Exception e) {
+            log.error("Failed to send bid digest", e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
+        }
+    }
+
     public void sendQuestionNotification(
             Long userId, Long productId, String productName, String question, String askerName) {
         Locale locale = localeService.getLocaleByUserId(userId);
@@ -108,15 +171,12 @@ public class EmailService {
 
     private void sendOtpEmailWithLocale(String to, String code, String purpose, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("code", code);
-            context.setVariable("purpose", purpose);
-
-            String htmlContent = templateEngine.process("otp-email", context);
-            String subject = messageSource.getMessage("email.otp.subject", new Object[] {purpose}, locale);
+            String htmlContent =
+                    emailTemplates.render("otp-email", locale, variables("code", code, "purpose", purpose));
+            String subject = emailTemplates.subject("email.otp.subject", locale, purpose);
 
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("OTP email sent to: {} in locale: {}", to, locale);
+            emailOutbox.enqueueSensitive(to, subject, htmlContent);
+            log.info("OTP email queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send OTP email", e);
             throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
@@ -126,75 +186,96 @@ public class EmailService {
     private void sendBidNotificationWithLocale(
             String to, String productName, String bidderName, String amount, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("bidderName", bidderName);
-            context.setVariable("amount", amount);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("bid-notification", context);
-            String subject = messageSource.getMessage("email.bid.subject", new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Bid notification sent to: {} in locale: {}", to, locale);
+            String htmlContent = emailTemplates.render(
+                    "bid-notification",
+                    locale,
+                    variables(
+                            "productName",
+                            productName,
+                            "bidderName",
+                            bidderName,
+                            "amount",
+                            amount,
+                            "productUrl",
+                            productUrl));
+            String subject = emailTemplates.subject("email.bid.subject", locale, productName);
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Bid notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send bid notification", e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
         }
     }
 
     private void sendOutbidNotificationWithLocale(
             String to, String productName, String amount, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("amount", amount);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("outbid-notification", context);
-            String subject = messageSource.getMessage("email.outbid.subject", new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Outbid notification sent to: {} in locale: {}", to, locale);
+            String htmlContent = emailTemplates.render(
+                    "outbid-notification",
+                    locale,
+                    variables("productName", productName, "amount", amount, "productUrl", productUrl));
+            String subject = emailTemplates.subject("email.outbid.subject", locale, productName);
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Outbid notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send outbid notification", e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
         }
     }
 
     private void sendAuctionEndedNotificationWithLocale(
             String to, String productName, boolean isWinner, String finalAmount, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("finalAmount", finalAmount);
-            context.setVariable("isWinner", isWinner);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("auction-ended", context);
-
-            String subjectKey = isWinner ? "email.auction.winner.subject" : "email.auction.ended.subject";
-            String subject = messageSource.getMessage(subjectKey, new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Auction ended notification sent to: {} in locale: {}", to, locale);
+            RenderedEmail rendered = renderAuctionEnded(productName, isWinner, finalAmount, productUrl, locale);
+            sendHtmlEmail(to, rendered.subject(), rendered.html(), EmailPriority.NORMAL);
+            log.info("Auction ended notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send auction ended notification", e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
         }
     }
 
+    private RenderedEmail renderAuctionEnded(
+            String productName, boolean isWinner, String finalAmount, String productUrl, Locale locale) {
+        String htmlContent = emailTemplates.render(
+                "auction-ended",
+                locale,
+                variables(
+                        "productName",
+                        productName,
+                        "finalAmount",
+                        finalAmount,
+                        "isWinner",
+                        isWinner,
+                        "productUrl",
+                        productUrl));
+
+        String subjectKey = isWinner ? "email.auction.winner.subject" : "email.auction.ended.subject";
+        String subject = emailTemplates.subject(subjectKey, locale, productName);
+        return new RenderedEmail(subject, htmlContent);
+    }
+
     private void sendQuestionNotificationWithLocale(
             String to, String productName, String question, String askerName, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("question", question);
-            context.setVariable("askerName", askerName);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("question-notification", context);
-            String subject = messageSource.getMessage("email.question.subject", new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Question notification sent to: {} in locale: {}", to, locale);
+            String htmlContent = emailTemplates.render(
+                    "question-notification",
+                    locale,
+                    variables(
+                            "productName",
+                            productName,
+                            "question",
+                            question,
+                            "askerName",
+                            askerName,
+                            "productUrl",
+                            productUrl));
+            String subject = emailTemplates.subject("email.question.subject", locale, productName);
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Question notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send question notification", e);
         }
@@ -202,16 +283,13 @@ public class EmailService {
 
     private void sendRoleExpirationEmailWithLocale(String to, Locale locale) {
         try {
-            Context context = new Context(locale);
-
-            // Render template
-            String htmlContent = templateEngine.process("role-expiration", context);
+            String htmlContent = emailTemplates.render("role-expiration", locale, Map.of());
 
             // Get subject from properties
-            String subject = messageSource.getMessage("email.role.expiration.subject", null, locale);
+            String subject = emailTemplates.subject("email.role.expiration.subject", locale);
 
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Role expiration email sent to: {} in locale: {}", to, locale);
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Role expiration email queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send role expiration email", e);
         }
@@ -220,20 +298,17 @@ public class EmailService {
     private void sendOrderShippedNotificationWithLocale(
             String to, String productName, String trackingNumber, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("trackingNumber", trackingNumber);
-            context.setVariable("productUrl", productUrl);
-
-            // Process the Thymeleaf template "order-shipped.html"
-            String htmlContent = templateEngine.process("order-shipped", context);
+            // Render the template "order-shipped.html"
+            String htmlContent = emailTemplates.render(
+                    "order-shipped",
+                    locale,
+                    variables("productName", productName, "trackingNumber", trackingNumber, "productUrl", productUrl));
 
             // Get localized subject
-            String subject =
-                    messageSource.getMessage("email.order.shipped.subject", new Object[] {productName}, locale);
+            String subject = emailTemplates.subject("email.order.shipped.subject", locale, productName);
 
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Order shipped notification sent to: {} in locale: {}", to, locale);
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Order shipped notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send order shipped notification", e);
         }
@@ -242,31 +317,27 @@ public class EmailService {
     private void sendBidderBlockedNotificationWithLocale(
             String to, String productName, String sellerName, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("sellerName", sellerName);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("bidder-blocked", context);
-            String subject = messageSource.getMessage("email.blocked.subject", new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Bidder blocked notification sent to: {} in locale: {}", to, locale);
+            String htmlContent = emailTemplates.render(
+                    "bidder-blocked",
+                    locale,
+                    variables("productName", productName, "sellerName", sellerName, "productUrl", productUrl));
+            String subject = emailTemplates.subject("email.blocked.subject", locale, productName);
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Bidder blocked notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send bidder blocked notification", e);
+            throw new AuctionException(Constants.ErrorCode.EMAIL_SENDING_FAILED);
         }
     }
 
     private void sendPasswordResetNotificationWithLocale(String to, String newPassword, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("newPassword", newPassword);
-
-            String htmlContent = templateEngine.process("password-reset", context);
-            String subject = messageSource.getMessage("email.password.reset.subject", null, locale);
+            String htmlContent = emailTemplates.render("password-reset", locale, variables("newPassword", newPassword));
+            String subject = emailTemplates.subject("email.password.reset.subject", locale);
 
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Password reset notification sent to: {} in locale: {}", to, locale);
+            emailOutbox.enqueueSensitive(to, subject, htmlContent);
+            log.info("Password reset notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send password reset notification", e);
         }
@@ -275,36 +346,43 @@ public class EmailService {
     private void sendProductUpdatedNotificationWithLocale(
             String to, String productName, String updateDescription, String productUrl, Locale locale) {
         try {
-            Context context = new Context(locale);
-            context.setVariable("productName", productName);
-            context.setVariable("updateDescription", updateDescription);
-            context.setVariable("productUrl", productUrl);
-
-            String htmlContent = templateEngine.process("product-updated", context);
-            String subject =
-                    messageSource.getMessage("email.product.updated.subject", new Object[] {productName}, locale);
-
-            sendHtmlEmail(to, subject, htmlContent);
-            log.info("Product updated notification sent to: {} in locale: {}", to, locale);
+            String htmlContent = emailTemplates.render(
+                    "product-updated",
+                    locale,
+                    variables(
+                            "productName",
+                            productName,
+                            "updateDescription",
+                            updateDescription,
+                            "productUrl",
+                            productUrl));
+            String subject = emailTemplates.subject("email.product.updated.subject", locale, productName);
+
+            sendHtmlEmail(to, subject, htmlContent, EmailPriority.NORMAL);
+            log.info("Product updated notification queued for: {} in locale: {}", to, locale);
         } catch (Exception e) {
             log.error("Failed to send product updated notification", e);
         }
     }
 
-    private void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(fromAddress);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
+    // Queued and sent by the email relay, so callers never wait on the mail server
+    private void sendHtmlEmail(String to, String subject, String htmlContent, EmailPriority priority) {
+        emailOutbox.enqueue(to, subject, htmlContent, priority);
+    }
 
-        mailSender.send(message);
+    // Template variables as name/value pairs; unlike Map.of, values may be null
+    private static Map<String, Object> variables(Object... namesAndValues) {
+        Map<String, Object> variables = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return variables;
     }
 
     private String getUserEmail(Long userId) {
-        Optional<User> user = userRepository.findById(userId);
-        return user.map(User::getEmail).orElseThrow(() -> new NotFoundException(Constants.ErrorCode.USER_NOT_FOUND));
+        return userProfileCache
+                .get(userId)
+                .map(UserProfile::email)
+                .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.USER_NOT_FOUND));
     }
 }
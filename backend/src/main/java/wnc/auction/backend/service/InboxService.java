@@ -0,0 +1,82 @@
+package wnc.auction.backend.service;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wnc.auction.backend.dto.model.InboxNotificationDto;
+import wnc.auction.backend.dto.response.CursorPageResponse;
+import wnc.auction.backend.inbox.UnreadCounter;
+import wnc.auction.backend.mapper.InboxNotificationMapper;
+import wnc.auction.backend.model.InboxNotification;
+import wnc.auction.backend.repository.InboxNotificationRepository;
+import wnc.auction.backend.security.CurrentUser;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InboxService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final InboxNotificationRepository inboxNotificationRepository;
+    private final UnreadCounter unreadCounter;
+
+    // Newest first; before is the cursor returned with the previous page
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InboxNotificationDto> getInbox(Long before, int size) {
+        Long userId = CurrentUser.getUserId();
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        // One extra row tells whether there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+        List<InboxNotification> rows = before == null
+                ? inboxNotificationRepository.findByUserIdOrderByIdDesc(userId, limit)
+                : inboxNotificationRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, before, limit);
+
+        boolean last = rows.size() <= pageSize;
+        List<InboxNotificationDto> content = rows.stream()
+                .limit(pageSize)
+                .map(InboxNotificationMapper::toDto)
+                .toList();
+
+        return CursorPageResponse.<InboxNotificationDto>builder()
+                .content(content)
+                .nextCursor(last ? null : content.get(content.size() - 1).getId())
+                .last(last)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount() {
+        Long userId = CurrentUser.getUserId();
+        return unreadCounter.get(userId, () -> inboxNotificationRepository.countByUserIdAndIsReadFalse(userId));
+    }
+
+    public void markAsRead(Long id) {
+        Long userId = CurrentUser.getUserId();
+        if (inboxNotificationRepository.markAsRead(id, userId) > 0) {
+            invalidateUnreadCountAfterCommit(userId);
+        }
+    }
+
+    public void markAllAsRead() {
+        Long userId = CurrentUser.getUserId();
+        if (inboxNotificationRepository.markAllAsRead(userId) > 0) {
+            invalidateUnreadCountAfterCommit(userId);
+        }
+    }
+
+    // Dropped only once the update is visible, so a concurrent read cannot cache the old count again
+    private void invalidateUnreadCountAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                unreadCounter.invalidate(userId);
+            }
+        });
+    }
+}
@@ -4,8 +4,10 @@ import java.util.Locale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.model.User;
 import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.repository.projection.UserProfile;
 
 @Service
 @RequiredArgsConstructor
@@ -13,6 +15,7 @@ import wnc.auction.backend.repository.UserRepository;
 public class LocaleService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
     /**
      * Get locale based on user's region
@@ -21,13 +24,13 @@ public class LocaleService {
      * @return Locale object (Vietnamese for VN, English for others)
      */
     public Locale getLocaleByUserId(Long userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
+        UserProfile profile = userProfileCache.get(userId).orElse(null);
+        if (profile == null) {
             log.warn("User not found: {}, defaulting to English", userId);
             return Locale.ENGLISH;
         }
 
-        return getLocaleFromUser(user);
+        return getLocale(profile.preferredLanguage(), profile.region());
     }
 
     /**
@@ -53,14 +56,37 @@ public class LocaleService {
      * @return Locale object
      */
     public Locale getLocaleFromUser(User user) {
+        return getLocale(user.getPreferredLanguage(), user.getRegion());
+    }
+
+    /**
+     * Get locale from a user's language and region settings
+     *
+     * @param preferredLanguage User's preferred language, may be null
+     * @param region User's region, may be null
+     * @return Locale object
+     */
+    public Locale getLocale(String preferredLanguage, String region) {
+        return resolve(preferredLanguage, region);
+    }
+
+    /**
+     * Same as {@link #getLocale(String, String)}, for per-recipient loops that must not go through the service
+     * proxy (and its audit aspect) once per recipient.
+     *
+     * @param preferredLanguage User's preferred language, may be null
+     * @param region User's region, may be null
+     * @return Locale object
+     */
+    public static Locale resolve(String preferredLanguage, String region) {
         // Priority 1: User's preferred language setting
-        if (user.getPreferredLanguage() != null && !user.getPreferredLanguage().isEmpty()) {
-            return parseLocale(user.getPreferredLanguage());
+        if (preferredLanguage != null && !preferredLanguage.isEmpty()) {
+            return parseLocale(preferredLanguage);
         }
 
         // Priority 2: User's region
-        if (user.getRegion() != null && !user.getRegion().isEmpty()) {
-            return getLocaleByRegion(user.getRegion());
+        if (region != null && !region.isEmpty()) {
+            return localeOfRegion(region);
         }
 
         // Default: English
@@ -74,6 +100,10 @@ public class LocaleService {
      * @return Locale object
      */
     public Locale getLocaleByRegion(String region) {
+        return localeOfRegion(region);
+    }
+
+    private static Locale localeOfRegion(String region) {
         if (region == null || region.isEmpty()) {
             return Locale.ENGLISH;
         }
@@ -95,7 +125,7 @@ public class LocaleService {
      * @param localeString Locale string
      * @return Locale object
      */
-    private Locale parseLocale(String localeString) {
+    private static Locale parseLocale(String localeString) {
         if (localeString == null || localeString.isEmpty()) {
             return Locale.ENGLISH;
         }
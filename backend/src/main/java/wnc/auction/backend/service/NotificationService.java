@@ -1,216 +1,291 @@
 package wnc.auction.backend.service;
 
-import java.io.IOException;
+import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import wnc.auction.backend.dto.model.BidHistoryDto;
-import wnc.auction.backend.mapper.BidMapper;
-import wnc.auction.backend.model.Bid;
-import wnc.auction.backend.repository.BidRepository;
-
+import wnc.auction.backend.engine.BidLeaderboard;
+import wnc.auction.backend.exception.ForbiddenException;
+import wnc.auction.backend.inbox.NotificationInboxWriter;
+import wnc.auction.backend.realtime.LeaderboardUpdateCoalescer;
+import wnc.auction.backend.realtime.SseBroadcaster;
+import wnc.auction.backend.realtime.SseBroadcaster.Scope;
+import wnc.auction.backend.realtime.SseConnection;
+import wnc.auction.backend.realtime.SseConnectionFactory;
+import wnc.auction.backend.realtime.SseFrame;
+import wnc.auction.backend.realtime.SseReplayBuffer;
+import wnc.auction.backend.realtime.SseSessionControl;
+import wnc.auction.backend.realtime.WatcherPresence;
+
+/**
+ * Real-time events over SSE. Emitters are held by the node the client is connected to; events are published
+ * through {@link SseBroadcaster} and every node writes them to its own emitters, so any replica can serve any
+ * stream. User and product streams can be resumed with {@code Last-Event-ID} from {@link SseReplayBuffer}.
+ *
+ * <p>Besides the dedicated user, product and chat streams, a client can hold a single multiplexed session
+ * stream and add or remove product and chat topics on it; its events are wrapped with their topic. Connection
+ * statistics are per node. Outbid, new-bid and auction-ended notifications are also kept in the user's inbox.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NotificationService {
 
-    // Store SSE emitters by user ID
-    private final Map<Long, List<SseEmitter>> userEmitters = new ConcurrentHashMap<>();
-
-    // Store SSE emitters by product ID for real-time bid updates
-    private final Map<Long, List<SseEmitter>> productEmitters = new ConcurrentHashMap<>();
+    private static final SseFrame RESYNC = SseFrame.of("resync", "Missed events are no longer available");
+    private static final String PRODUCT_TOPIC = "product:";
 
-    // Store SSE emitters by chat transaction ID for real-time chat messages
-    private final Map<Long, List<SseEmitter>> chatEmitters = new ConcurrentHashMap<>();
+    // Store SSE connections by user ID
+    private final Map<Long, List<SseConnection>> userConnections = new ConcurrentHashMap<>();
 
-    private final BidRepository bidRepository;
+    // Store SSE connections by product ID for real-time bid updates
+    private final Map<Long, List<SseConnection>> productConnections = new ConcurrentHashMap<>();
 
-    // Create SSE connection for user notifications
-    public SseEmitter createUserConnection(Long userId) {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+    // Store SSE connections by chat transaction ID for real-time chat messages
+    private final Map<Long, List<SseConnection>> chatConnections = new ConcurrentHashMap<>();
 
-        userEmitters.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+    // Multiplexed session streams by session ID, and their connections by topic ("product:12")
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<SseConnection>> topicSubscribers = new ConcurrentHashMap<>();
 
-        emitter.onCompletion(() -> removeUserEmitter(userId, emitter));
-        emitter.onTimeout(() -> removeUserEmitter(userId, emitter));
-        emitter.onError(e -> removeUserEmitter(userId, emitter));
+    private final BidLeaderboard bidLeaderboard;
+    private final SseBroadcaster broadcaster;
+    private final LeaderboardUpdateCoalescer leaderboardUpdateCoalescer;
+    private final SseConnectionFactory connectionFactory;
+    private final SseReplayBuffer replayBuffer;
+    private final SseSessionControl sessionControl;
+    private final NotificationInboxWriter inboxWriter;
+    private final WatcherPresence watcherPresence;
+    private final Clock clock;
 
-        try {
-            emitter.send(SseEmitter.event().name("connected").data("Connected to notification stream"));
-        } catch (IOException e) {
-            log.error("Error sending initial event", e);
-            removeUserEmitter(userId, emitter);
-        }
+    // One multiplexed stream: the user's own notifications plus the product and chat topics it subscribed to
+    private record Session(SseConnection connection, Long userId, Set<String> topics) {}
 
-        log.info("SSE connection created for user: {}", userId);
-        return emitter;
+    @PostConstruct
+    void registerLocalDelivery() {
+        broadcaster.register(this::deliverLocally);
+        sessionControl.register(this::applyLocally);
     }
 
-    // Create SSE connection for product bid updates
-    public SseEmitter createProductConnection(Long productId) {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-
-        productEmitters
-                .computeIfAbsent(productId, k -> new CopyOnWriteArrayList<>())
-                .add(emitter);
+    // Create SSE connection for user notifications, resuming after lastEventId (Last-Event-ID) if given
+    public SseEmitter createUserConnection(Long userId, Long lastEventId) {
+        SseConnection connection = connect("user", userConnections, userId);
+        connection.send(SseFrame.of("connected", "Connected to notification stream"));
+        resume(Scope.USER, userConnections, userId, connection, lastEventId);
 
-        emitter.onCompletion(() -> removeProductEmitter(productId, emitter));
-        emitter.onTimeout(() -> removeProductEmitter(productId, emitter));
-        emitter.onError(e -> removeProductEmitter(productId, emitter));
+        log.info("SSE connection created for user: {}", userId);
+        return connection.emitter();
+    }
 
-        try {
-            emitter.send(SseEmitter.event().name("connected").data("Connected to product stream"));
-        } catch (IOException e) {
-            log.error("Error sending initial event", e);
-            removeProductEmitter(productId, emitter);
-        }
+    // Create SSE connection for product bid updates, resuming after lastEventId (Last-Event-ID) if given
+    public SseEmitter createProductConnection(Long productId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // Timeout set to max
+        SseConnection connection = connectionFactory.open(emitter, "product", productId, closed -> {
+            remove("product", productConnections, productId, closed);
+            watcherPresence.unwatch(productId);
+        });
+        watcherPresence.watch(productId);
+        connection.send(SseFrame.of("connected", "Connected to product stream"));
+        resume(Scope.PRODUCT, productConnections, productId, connection, lastEventId);
 
         log.info("SSE connection created for product: {}", productId);
-        return emitter;
+        return connection.emitter();
     }
 
     public SseEmitter subscribeToChat(Long transactionId) {
+        SseConnection connection = connect("chat", chatConnections, transactionId);
+        register(chatConnections, transactionId, connection);
+        return connection.emitter();
+    }
+
+    // Create one stream for the session; topics are added and removed with subscribe/unsubscribe
+    public SseEmitter createSessionConnection(Long userId) {
+        String sessionId = UUID.randomUUID().toString();
         SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // Timeout set to max
+        SseConnection connection = connectionFactory.open(emitter, "session", closed -> closeSession(sessionId));
+        Session session = new Session(connection, userId, ConcurrentHashMap.newKeySet());
+        sessions.put(sessionId, session);
+
+        connection.send(SseFrame.of("connected", "{\"sessionId\":\"" + sessionId + "\"}"));
+        subscribe(session, Scope.USER, userId, null);
+        if (!connection.isOpen()) {
+            closeSession(sessionId);
+        }
 
-        // Create list if not exists and add emitter
-        chatEmitters
-                .computeIfAbsent(transactionId, k -> new CopyOnWriteArrayList<>())
-                .add(emitter);
+        log.info("SSE session {} created for user: {}", sessionId, userId);
+        return emitter;
+    }
 
-        // Remove emitter on completion or timeout
-        emitter.onCompletion(() -> removeChatEmitter(transactionId, emitter));
-        emitter.onTimeout(() -> removeChatEmitter(transactionId, emitter));
-        emitter.onError((e) -> removeChatEmitter(transactionId, emitter));
+    // Add a product or chat topic to a session stream, replaying the topic's events after lastEventId if given
+    public void subscribe(String sessionId, Long userId, Scope scope, Long key, Long lastEventId) {
+        long replayFrom = lastEventId == null ? -1 : lastEventId;
+        if (!applyLocally(new SseSessionControl.Command(sessionId, userId, true, scope, key, replayFrom))) {
+            sessionControl.publish(new SseSessionControl.Command(sessionId, userId, true, scope, key, replayFrom));
+        }
+    }
 
-        return emitter;
+    public void unsubscribe(String sessionId, Long userId, Scope scope, Long key) {
+        if (!applyLocally(new SseSessionControl.Command(sessionId, userId, false, scope, key, -1))) {
+            sessionControl.publish(new SseSessionControl.Command(sessionId, userId, false, scope, key, -1));
+        }
     }
 
-    @Scheduled(fixedRate = 30000)
-    public void sendHeartbeat() {
-        // Ping users
-        for (List<SseEmitter> emitters : userEmitters.values()) {
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(SseEmitter.event().name("ping").data("keep-alive"));
-                } catch (IOException e) {
-                    // Dead emitters will be cleaned up by onError/onTimeout
-                }
-            }
+    // Returns false if the session is not on this node
+    private boolean applyLocally(SseSessionControl.Command command) {
+        Session session = sessions.get(command.sessionId());
+        if (session == null) {
+            return false;
+        }
+        if (!session.userId().equals(command.userId())) {
+            throw new ForbiddenException("Notification stream belongs to another user");
         }
 
-        // Ping product watchers
-        for (List<SseEmitter> emitters : productEmitters.values()) {
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(SseEmitter.event().name("ping").data("keep-alive"));
-                } catch (IOException e) {
-                    // Ignore
+        if (command.subscribe()) {
+            subscribe(
+                    session, command.scope(), command.key(), command.lastEventId() < 0 ? null : command.lastEventId());
+        } else {
+            String topic = topic(command.scope(), command.key());
+            if (session.topics().remove(topic)) {
+                remove(topicSubscribers, topic, session.connection());
+                if (command.scope() == Scope.PRODUCT) {
+                    watcherPresence.unwatch(command.key());
                 }
             }
         }
+        return true;
+    }
 
-        // Ping chat participants
-        for (List<SseEmitter> emitters : chatEmitters.values()) {
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(SseEmitter.event().name("ping").data("keep-alive"));
-                } catch (IOException e) {
-                    // Ignore
-                }
+    private void subscribe(Session session, Scope scope, Long key, Long lastEventId) {
+        String topic = topic(scope, key);
+        if (!session.topics().add(topic)) {
+            return;
+        }
+
+        if (scope == Scope.PRODUCT) {
+            watcherPresence.watch(key);
+        }
+
+        SseConnection connection = session.connection();
+        if (lastEventId == null || !scope.isNumbered()) {
+            register(topicSubscribers, topic, connection);
+            return;
+        }
+
+        replayBuffer.replay(
+                scope,
+                key,
+                lastEventId,
+                () -> broadcaster.lastEventId(scope, key),
+                frame -> connection.send(frame.tagged(topic)),
+                () -> connection.send(SseFrame.of("resync", "{\"topic\":\"" + topic + "\"}")),
+                () -> register(topicSubscribers, topic, connection));
+    }
+
+    private void closeSession(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        session.topics().forEach(topic -> {
+            remove(topicSubscribers, topic, session.connection());
+            if (topic.startsWith(PRODUCT_TOPIC)) {
+                watcherPresence.unwatch(Long.parseLong(topic.substring(PRODUCT_TOPIC.length())));
             }
+        });
+        log.info("SSE session {} closed for user: {}", sessionId, session.userId());
+    }
+
+    private static String topic(Scope scope, long key) {
+        return scope.name().toLowerCase() + ':' + key;
+    }
+
+    // The connection removes itself from its map when the client goes away or is evicted
+    private SseConnection connect(String stream, Map<Long, List<SseConnection>> connections, Long key) {
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // Timeout set to max
+        return connectionFactory.open(emitter, stream, closed -> remove(stream, connections, key, closed));
+    }
+
+    private <K> void register(Map<K, List<SseConnection>> connections, K key, SseConnection connection) {
+        connections.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(connection);
+        // Closed before it was registered: its removal has already run
+        if (!connection.isOpen()) {
+            remove(connections, key, connection);
         }
     }
 
-    // Send bid update to all clients watching a product
-    public void sendBidUpdate(Long productId, BigDecimal amount, String bidderName) {
-        List<SseEmitter> emitters = productEmitters.get(productId);
-        if (emitters == null || emitters.isEmpty()) {
+    // Replay the events missed since lastEventId, or ask the client to reload if they are gone, then go live
+    private void resume(
+            Scope scope,
+            Map<Long, List<SseConnection>> connections,
+            Long key,
+            SseConnection connection,
+            Long lastEventId) {
+        if (lastEventId == null) {
+            register(connections, key, connection);
             return;
         }
 
+        replayBuffer.replay(
+                scope,
+                key,
+                lastEventId,
+                () -> broadcaster.lastEventId(scope, key),
+                connection::send,
+                () -> connection.send(RESYNC),
+                () -> register(connections, key, connection));
+    }
+
+    // Send bid update to all clients watching a product, on every node. Updates within one window are
+    // coalesced, only the latest bid and leaderboard are sent. endTime reflects any auto-extension.
+    public void sendBidUpdate(Long productId, BigDecimal amount, String bidderName, LocalDateTime endTime) {
         Map<String, Object> data = new HashMap<>();
         data.put("productId", productId);
         data.put("amount", amount);
         data.put("bidderName", maskUserName(bidderName));
-        data.put("timestamp", LocalDateTime.now().toString());
-
-        // Fetch top 10 Leaderboard
-        List<Bid> topBids = bidRepository.findHighestBidForProduct(productId, PageRequest.of(0, 10));
+        data.put("endTime", endTime == null ? null : endTime.toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
-        // Page<Bid> topBidsPage = bidRepository.findBidRankingByProduct(productId, PageRequest.of(0, 10));
+        leaderboardUpdateCoalescer.submit(productId, () -> publishBidUpdate(productId, data));
+    }
 
-        // Map to DTO
-        List<BidHistoryDto> leaderboard =
-                topBids.stream().map(BidMapper::toHistoryDto).toList();
+    private void publishBidUpdate(Long productId, Map<String, Object> data) {
+        // Top 10 from the materialized leaderboard
+        List<BidHistoryDto> leaderboard = bidLeaderboard.top(productId, 0, 10);
 
         // Prepare payload containing both latest bid and the new leaderboard
         Map<String, Object> eventData = new HashMap<>();
         eventData.put("latestBid", data);
         eventData.put("leaderboard", leaderboard);
+        eventData.put("watchers", watcherPresence.watchers(productId));
 
-        List<SseEmitter> deadEmitters = new ArrayList<>();
-
-        for (SseEmitter emitter : emitters) {
-            try {
-                // Send event named 'leaderboard_update'
-                emitter.send(SseEmitter.event().name("leaderboard_update").data(eventData));
-            } catch (IOException e) {
-                deadEmitters.add(emitter);
-            }
-        }
-
-        // Remove dead emitters
-        emitters.removeAll(deadEmitters);
-
-        log.info("Sent bid update for product {} to {} clients", productId, emitters.size());
+        // Send event named 'leaderboard_update'
+        broadcaster.publish(Scope.PRODUCT, productId, "leaderboard_update", eventData);
     }
 
-    // Send notification to user
+    // Send notification to user, on whichever node they are connected to
     public void sendUserNotification(Long userId, String type, Object data) {
-        List<SseEmitter> emitters = userEmitters.get(userId);
-        if (emitters == null || emitters.isEmpty()) {
-            return;
-        }
-
-        List<SseEmitter> deadEmitters = new ArrayList<>();
-
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(SseEmitter.event().name(type).data(data));
-            } catch (IOException e) {
-                deadEmitters.add(emitter);
-            }
-        }
-
-        // Remove dead emitters
-        emitters.removeAll(deadEmitters);
-
-        log.info("Sent {} notification to user {} ({} clients)", type, userId, emitters.size());
+        broadcaster.publish(Scope.USER, userId, type, data);
     }
 
     public void sendChatUpdate(Long transactionId, Object data) {
-        List<SseEmitter> emitters = chatEmitters.get(transactionId);
-        if (emitters != null) {
-            // Send to all subscribers of this transaction
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(SseEmitter.event().name("chat_message").data(data));
-                } catch (IOException e) {
-                    emitter.completeWithError(e);
-                }
-            }
-        }
+        broadcaster.publish(Scope.CHAT, transactionId, "chat_message", data);
+    }
+
+    // Send notification to user and keep it in their inbox, for when they are offline
+    private void sendInboxNotification(Long userId, String type, Object data) {
+        inboxWriter.append(userId, type, data);
+        sendUserNotification(userId, type, data);
     }
 
     // Send notification to multiple users
@@ -226,9 +301,9 @@ public class NotificationService {
         data.put("productId", productId);
         data.put("productName", productName);
         data.put("newAmount", newAmount);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
-        sendUserNotification(userId, "outbid", data);
+        sendInboxNotification(userId, "outbid", data);
     }
 
     // Notify seller of new bid
@@ -238,9 +313,9 @@ public class NotificationService {
         data.put("productName", productName);
         data.put("amount", amount);
         data.put("bidderName", maskUserName(bidderName));
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
-        sendUserNotification(sellerId, "new_bid", data);
+        sendInboxNotification(sellerId, "new_bid", data);
     }
 
     // Notify auction ended
@@ -251,9 +326,9 @@ public class NotificationService {
         data.put("productName", productName);
         data.put("isWinner", isWinner);
         data.put("finalAmount", finalAmount);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
-        sendUserNotification(userId, "auction_ended", data);
+        sendInboxNotification(userId, "auction_ended", data);
     }
 
     // Notify new question
@@ -264,7 +339,7 @@ public class NotificationService {
         data.put("productName", productName);
         data.put("question", question);
         data.put("askerName", askerName);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
         sendUserNotification(sellerId, "new_question", data);
     }
@@ -275,7 +350,7 @@ public class NotificationService {
         data.put("productId", productId);
         data.put("productName", productName);
         data.put("answer", answer);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
         sendUserNotification(userId, "question_answered", data);
     }
@@ -284,76 +359,93 @@ public class NotificationService {
     public void broadcastSystemMessage(String message) {
         Map<String, Object> data = new HashMap<>();
         data.put("message", message);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
 
-        for (Map.Entry<Long, List<SseEmitter>> entry : userEmitters.entrySet()) {
-            sendUserNotification(entry.getKey(), "system_message", data);
-        }
+        broadcaster.publish(Scope.ALL_USERS, 0L, "system_message", data);
 
         log.info("Broadcast system message to all users");
     }
 
     public void broadcastAuctionEnded(Long productId, String productName, String winnerName, BigDecimal finalAmount) {
-        List<SseEmitter> emitters = productEmitters.get(productId);
-        if (emitters == null || emitters.isEmpty()) {
-            return;
-        }
-
         Map<String, Object> data = new HashMap<>();
         data.put("productId", productId);
         data.put("productName", productName);
         data.put("winnerName", maskUserName(winnerName)); // Mask the winner's name for privacy
         data.put("finalAmount", finalAmount);
-        data.put("timestamp", LocalDateTime.now().toString());
+        data.put("timestamp", LocalDateTime.now(clock).toString());
         data.put("status", "COMPLETED"); // Signal frontend to disable bidding
 
-        List<SseEmitter> deadEmitters = new ArrayList<>();
+        // Send event named 'auction_closed' to differentiate from personal 'auction_ended'
+        broadcaster.publish(Scope.PRODUCT, productId, "auction_closed", data);
+    }
 
-        for (SseEmitter emitter : emitters) {
-            try {
-                // Send event named 'auction_closed' to differentiate from personal 'auction_ended'
-                emitter.send(SseEmitter.event().name("auction_closed").data(data));
-            } catch (IOException e) {
-                deadEmitters.add(emitter);
-            }
+    // Queue a published event on the connections to this node, encoded once for all of them
+    private void deliverLocally(Scope scope, long key, String event, long id, String json) {
+        // A leaderboard update carries the full latest state, a newer one supersedes it
+        SseFrame frame = "leaderboard_update".equals(event)
+                ? SseFrame.conflatable(id, event, json)
+                : SseFrame.of(id, event, json);
+        if (id > 0) {
+            replayBuffer.append(scope, key, frame, () -> fanOut(scope, key, frame));
+        } else {
+            fanOut(scope, key, frame);
         }
-
-        // Remove dead emitters
-        emitters.removeAll(deadEmitters);
-
-        log.info("Broadcast auction ended for product {} to {} clients", productId, emitters.size());
     }
 
-    private void removeUserEmitter(Long userId, SseEmitter emitter) {
-        List<SseEmitter> emitters = userEmitters.get(userId);
-        if (emitters != null) {
-            emitters.remove(emitter);
-            if (emitters.isEmpty()) {
-                userEmitters.remove(userId);
+    private void fanOut(Scope scope, long key, SseFrame frame) {
+        String event = frame.event();
+
+        // Session streams get the same event wrapped with its topic
+        if (scope == Scope.ALL_USERS) {
+            SseFrame tagged = frame.tagged("system");
+            sessions.values().forEach(session -> session.connection().send(tagged));
+        } else {
+            String topic = topic(scope, key);
+            List<SseConnection> subscribers = topicSubscribers.get(topic);
+            if (subscribers != null && !subscribers.isEmpty()) {
+                send(subscribers, frame.tagged(topic));
             }
         }
-        log.info("SSE connection removed for user: {}", userId);
-    }
 
-    private void removeProductEmitter(Long productId, SseEmitter emitter) {
-        List<SseEmitter> emitters = productEmitters.get(productId);
-        if (emitters != null) {
-            emitters.remove(emitter);
-            if (emitters.isEmpty()) {
-                productEmitters.remove(productId);
+        switch (scope) {
+            case USER -> {
+                int sent = send(userConnections.get(key), frame);
+                log.info("Sent {} notification to user {} ({} clients)", event, key, sent);
             }
+            case PRODUCT -> {
+                int sent = send(productConnections.get(key), frame);
+                log.info("Sent {} for product {} to {} clients", event, key, sent);
+            }
+            case CHAT -> send(chatConnections.get(key), frame);
+            case ALL_USERS -> userConnections.values().forEach(connections -> send(connections, frame));
         }
-        log.info("SSE connection removed for product: {}", productId);
     }
 
-    private void removeChatEmitter(Long transactionId, SseEmitter emitter) {
-        List<SseEmitter> emitters = chatEmitters.get(transactionId);
-        if (emitters != null) {
-            emitters.remove(emitter);
-            if (emitters.isEmpty()) {
-                chatEmitters.remove(transactionId);
+    // Returns the number of clients the frame was queued for
+    private int send(List<SseConnection> connections, SseFrame frame) {
+        if (connections == null || connections.isEmpty()) {
+            return 0;
+        }
+
+        int sent = 0;
+        for (SseConnection connection : connections) {
+            if (connection.send(frame)) {
+                sent++;
             }
         }
+        return sent;
+    }
+
+    private void remove(String stream, Map<Long, List<SseConnection>> connections, Long key, SseConnection connection) {
+        remove(connections, key, connection);
+        log.info("SSE connection removed for {}: {}", stream, key);
+    }
+
+    private <K> void remove(Map<K, List<SseConnection>> connections, K key, SseConnection connection) {
+        connections.computeIfPresent(key, (k, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
     }
 
     private String maskUserName(String fullName) {
@@ -367,17 +459,16 @@ public class NotificationService {
 
     // Get statistics about active connections
     public Map<String, Integer> getConnectionStats() {
-        int userConnections =
-                userEmitters.values().stream().mapToInt(List::size).sum();
+        int userStreams = userConnections.values().stream().mapToInt(List::size).sum();
 
-        int productConnections =
-                productEmitters.values().stream().mapToInt(List::size).sum();
+        int productStreams =
+                productConnections.values().stream().mapToInt(List::size).sum();
 
         Map<String, Integer> stats = new HashMap<>();
-        stats.put("activeUserConnections", userConnections);
-        stats.put("activeProductConnections", productConnections);
-        stats.put("usersWatching", userEmitters.size());
-        stats.put("productsWatched", productEmitters.size());
+        stats.put("activeUserConnections", userStreams);
+        stats.put("activeProductConnections", productStreams);
+        stats.put("usersWatching", userConnections.size());
+        stats.put("productsWatched", productConnections.size());
 
         return stats;
     }
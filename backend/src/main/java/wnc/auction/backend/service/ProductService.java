@@ -15,17 +15,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import wnc.auction.backend.cache.BlockedBidderIndex;
 import wnc.auction.backend.dto.model.ProductDto;
 import wnc.auction.backend.dto.model.ProductListDto;
 import wnc.auction.backend.dto.request.CreateProductRequest;
 import wnc.auction.backend.dto.request.SearchRequest;
 import wnc.auction.backend.dto.request.UpdateProductDescriptionRequest;
 import wnc.auction.backend.dto.response.PageResponse;
+import wnc.auction.backend.engine.BidLeaderboard;
 import wnc.auction.backend.exception.BadRequestException;
 import wnc.auction.backend.exception.ForbiddenException;
 import wnc.auction.backend.exception.NotFoundException;
 import wnc.auction.backend.mapper.ProductMapper;
-import wnc.auction.backend.model.Bid;
 import wnc.auction.backend.model.Category;
 import wnc.auction.backend.model.Product;
 import wnc.auction.backend.model.User;
@@ -48,8 +49,9 @@ public class ProductService {
     private final AuctionSchedulerService auctionSchedulerService;
     private final NotificationService notificationService;
     private final WatchListRepository watchListRepository;
-    private final BlockedBidderRepository blockedBidderRepository;
+    private final BlockedBidderIndex blockedBidderIndex;
     private final BidRepository bidRepository;
+    private final BidLeaderboard bidLeaderboard;
     private final EmailService emailService;
     private final FileStorageService fileStorageService;
 
@@ -130,7 +132,7 @@ public class ProductService {
         // Check if the current user is blocked from this product
         boolean isBlocked = false;
         if (currentUserId != null) {
-            isBlocked = blockedBidderRepository.existsByProductIdAndBidderId(id, currentUserId);
+            isBlocked = blockedBidderIndex.isBlocked(id, currentUserId);
         }
 
         return ProductMapper.toDto(product, currentUserId, isBlocked, calculateUserRank(id, currentUserId));
@@ -349,16 +351,7 @@ public class ProductService {
         if (userId == null) {
             return null;
         }
-        List<Bid> ranking = bidRepository
-                .findBidRankingByProduct(productId, PageRequest.of(0, 1000))
-                .getContent();
-
-        for (int i = 0; i < ranking.size(); i++) {
-            if (ranking.get(i).getUser().getId().equals(userId)) {
-                return i + 1;
-            }
-        }
-        return null;
+        return bidLeaderboard.rankOf(productId, userId);
     }
 
     public void extendAuction(Long productId, int minutes) {
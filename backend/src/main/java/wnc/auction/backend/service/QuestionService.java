@@ -10,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.BlockedBidderIndex;
 import wnc.auction.backend.dto.model.QuestionDto;
 import wnc.auction.backend.dto.request.AnswerQuestionRequest;
 import wnc.auction.backend.dto.request.AskQuestionRequest;
@@ -21,7 +22,6 @@ import wnc.auction.backend.mapper.QuestionMapper;
 import wnc.auction.backend.model.Product;
 import wnc.auction.backend.model.Question;
 import wnc.auction.backend.model.User;
-import wnc.auction.backend.repository.BlockedBidderRepository;
 import wnc.auction.backend.repository.ProductRepository;
 import wnc.auction.backend.repository.QuestionRepository;
 import wnc.auction.backend.repository.UserRepository;
@@ -38,7 +38,7 @@ public class QuestionService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
-    private final BlockedBidderRepository blockedBidderRepository;
+    private final BlockedBidderIndex blockedBidderIndex;
 
     public QuestionDto askQuestion(AskQuestionRequest request) {
         Long userId = CurrentUser.getUserId();
@@ -50,7 +50,7 @@ public class QuestionService {
                 .findById(request.getProductId())
                 .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND));
 
-        if (blockedBidderRepository.existsByProductIdAndBidderId(product.getId(), userId)) {
+        if (blockedBidderIndex.isBlocked(product.getId(), userId)) {
             throw new ForbiddenException("You have been blocked by the seller and cannot ask questions.");
         }
 
@@ -9,6 +9,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.dto.model.RatingDto;
 import wnc.auction.backend.dto.request.RateUserRequest;
 import wnc.auction.backend.dto.response.PageResponse;
@@ -34,6 +35,7 @@ public class RatingService {
 
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final ProductRepository productRepository;
     private final TransactionRepository transactionRepository;
 
@@ -103,6 +105,7 @@ public class RatingService {
 
         rating = ratingRepository.save(rating);
         userRepository.save(user);
+        userProfileCache.invalidate(user.getId());
 
         log.info("User {} rated by user {}: {}", request.getUserId(), raterId, request.getIsPositive());
 
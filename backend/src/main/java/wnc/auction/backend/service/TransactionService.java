@@ -11,6 +11,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.dto.model.RatingDto;
 import wnc.auction.backend.dto.model.TransactionDto;
 import wnc.auction.backend.dto.request.*;
@@ -44,6 +45,7 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final RatingRepository ratingRepository;
     private final EmailService emailService;
     private final ChatService chatService;
@@ -315,6 +317,7 @@ public class TransactionService {
         User buyer = transaction.getBuyer();
         buyer.setNegativeRatings(buyer.getNegativeRatings() + 1);
         userRepository.save(buyer);
+        userProfileCache.invalidate(buyer.getId());
 
         // Send system message
         chatService.sendSystemMessage(transactionId, "Transaction cancelled by seller. Reason: " + request.getReason());
@@ -396,6 +399,7 @@ public class TransactionService {
 
         rating = ratingRepository.save(rating);
         userRepository.save(user);
+        userProfileCache.invalidate(user.getId());
 
         // Send system message
         chatService.sendSystemMessage(transaction.getId(), rater.getFullName() + " has rated " + user.getFullName());
@@ -10,6 +10,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.dto.model.UpgradeRequestDto;
 import wnc.auction.backend.dto.request.CreateUpgradeRequest;
 import wnc.auction.backend.dto.request.ReviewUpgradeRequest;
@@ -34,6 +35,7 @@ public class UpgradeRequestService {
 
     private final UpgradeRequestRepository upgradeRequestRepository;
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final UserSchedulerService userSchedulerService;
 
     public UpgradeRequestDto createUpgradeRequest(CreateUpgradeRequest request) {
@@ -112,6 +114,7 @@ public class UpgradeRequestService {
 
             log.info("User {} upgraded to SELLER for 7 days until {}", user.getId(), expirationTime);
             userRepository.save(user);
+            userProfileCache.invalidate(user.getId());
         }
 
         upgradeRequest = upgradeRequestRepository.save(upgradeRequest);
@@ -7,8 +7,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wnc.auction.backend.cache.UserProfileCache;
 import wnc.auction.backend.dto.model.RatingDto;
 import wnc.auction.backend.dto.model.UserDto;
+import wnc.auction.backend.dto.request.ChangeEmailDigestRequest;
 import wnc.auction.backend.dto.request.ChangeLanguageRequest;
 import wnc.auction.backend.dto.request.ChangePasswordRequest;
 import wnc.auction.backend.dto.request.UpdateProfileRequest;
@@ -34,6 +36,7 @@ import wnc.auction.backend.utils.Constants;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final RatingRepository ratingRepository;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenRepository refreshTokenRepository;
@@ -67,6 +70,7 @@ public class UserService {
         user.setDateOfBirth(request.getDateOfBirth());
 
         user = userRepository.save(user);
+        userProfileCache.invalidate(userId);
         return UserMapper.toDto(user);
     }
 
@@ -97,6 +101,7 @@ public class UserService {
         // Set account as inactive
         user.setIsActive(false);
         userRepository.save(user);
+        userProfileCache.invalidate(userId);
 
         // Invalidate all sessions
         invalidateAllUserSessions(userId, "ACCOUNT_DISABLED");
@@ -114,6 +119,7 @@ public class UserService {
 
         user.setIsActive(true);
         userRepository.save(user);
+        userProfileCache.invalidate(userId);
 
         // Enable in Keycloak
         keycloakService.enableUser(user.getEmail());
@@ -183,6 +189,20 @@ public class UserService {
         }
 
         userRepository.save(user);
+        userProfileCache.invalidate(userId);
         log.info("User {} changed language to {}", userId, request.getLanguage());
     }
+
+    public void changeEmailDigest(ChangeEmailDigestRequest request) {
+        Long userId = CurrentUser.getUserId();
+        User user = userRepository
+                .findById(userId)
+                .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.USER_NOT_FOUND));
+
+        user.setBidEmailDigest(request.getEnabled());
+
+        userRepository.save(user);
+        userProfileCache.invalidate(userId);
+        log.info("User {} turned the bid email digest {}", userId, request.getEnabled() ? "on" : "off");
+    }
 }
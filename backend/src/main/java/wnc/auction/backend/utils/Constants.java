@@ -56,6 +56,14 @@ public class Constants {
         public static final String INVALID_FILE_TYPE = "INVALID_FILE_TYPE";
         public static final String EMAIL_SENDING_FAILED = "EMAIL_SENDING_FAILED";
         public static final String INVALID_LOCALE = "INVALID_LOCALE";
+
+        // Bidding
+        public static final String BID_QUEUE_FULL = "BID_QUEUE_FULL";
+        public static final String BID_PROCESSING_TIMEOUT = "BID_PROCESSING_TIMEOUT";
+        public static final String BID_OUTCOME_UNKNOWN = "BID_OUTCOME_UNKNOWN";
+        public static final String BID_PROCESSING_FAILED = "BID_PROCESSING_FAILED";
+        public static final String IDEMPOTENCY_KEY_INVALID = "IDEMPOTENCY_KEY_INVALID";
+        public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "IDEMPOTENCY_KEY_IN_PROGRESS";
     }
 
     @UtilityClass
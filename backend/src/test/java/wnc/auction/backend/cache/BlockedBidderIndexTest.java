@@ -0,0 +1,40 @@
+package wnc.auction.backend.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import wnc.auction.backend.repository.BlockedBidderRepository;
+
+class BlockedBidderIndexTest {
+
+    private final BlockedBidderRepository repository = mock(BlockedBidderRepository.class);
+    private final BlockedBidderIndex index = new BlockedBidderIndex(
+            repository, mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), 300, 100);
+
+    @Test
+    void setLoadedBeforeABlockCommitsIsNotCached() {
+        // The block commits (and evicts) while a reader outside the bid lane is still loading the old set
+        when(repository.findBidderIdsByProductId(1L))
+                .thenAnswer(invocation -> {
+                    index.invalidate(1L);
+                    return List.of();
+                })
+                .thenReturn(List.of(7L));
+
+        assertThat(index.isBlocked(1L, 7L)).isFalse();
+        assertThat(index.isBlocked(1L, 7L)).isTrue();
+    }
+
+    @Test
+    void setLoadedWithoutConcurrentEvictionIsCached() {
+        when(repository.findBidderIdsByProductId(1L)).thenReturn(List.of(7L)).thenReturn(List.of());
+
+        assertThat(index.isBlocked(1L, 7L)).isTrue();
+        assertThat(index.isBlocked(1L, 7L)).isTrue();
+    }
+}
@@ -0,0 +1,76 @@
+package wnc.auction.backend.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import wnc.auction.backend.exception.AuctionException;
+import wnc.auction.backend.exception.OutcomeUnknownException;
+import wnc.auction.backend.utils.Constants;
+
+class IdempotencyCacheTest {
+
+    private static final String KEY = "idempotency:place-bid:7:retry-1";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+
+    private final IdempotencyCache cache =
+            new IdempotencyCache(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 24, 60, 100);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+    }
+
+    @Test
+    void resultOfWorkThatOutlivedTheRequestIsStoredUnderTheKey() {
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+
+        assertThatThrownBy(() -> cache.execute("place-bid", 7L, "retry-1", String.class, () -> {
+                    throw new OutcomeUnknownException(outcome, Constants.ErrorCode.BID_OUTCOME_UNKNOWN);
+                }))
+                .isInstanceOf(OutcomeUnknownException.class);
+        // The in-flight marker now lives as long as a result would, instead of expiring while the bid runs
+        verify(redisTemplate).expire(KEY, Duration.ofHours(24));
+        verify(redisTemplate, never()).delete(KEY);
+
+        outcome.complete("bid-42");
+
+        verify(values).set(KEY, "\"bid-42\"", Duration.ofHours(24));
+        assertThat(cache.execute("place-bid", 7L, "retry-1", String.class, () -> "second bid"))
+                .isEqualTo("bid-42");
+    }
+
+    @Test
+    void keyIsReleasedWhenWorkThatOutlivedTheRequestFails() {
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+
+        assertThatThrownBy(() -> cache.execute("place-bid", 7L, "retry-1", String.class, () -> {
+                    throw new OutcomeUnknownException(outcome, Constants.ErrorCode.BID_OUTCOME_UNKNOWN);
+                }))
+                .isInstanceOf(OutcomeUnknownException.class);
+
+        outcome.completeExceptionally(new AuctionException(Constants.ErrorCode.BID_QUEUE_FULL));
+
+        verify(redisTemplate).delete(KEY);
+        verify(values, never()).set(eq(KEY), anyString(), any(Duration.class));
+    }
+}
@@ -0,0 +1,48 @@
+package wnc.auction.backend.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import wnc.auction.backend.model.enumeration.UserRole;
+import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.repository.projection.UserProfile;
+
+class UserProfileCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserProfileCache cache = new UserProfileCache(
+            repository, mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), 300, 100);
+
+    @Test
+    void profileLoadedBeforeARoleChangeCommitsIsNotCached() {
+        // The role change commits (and evicts) while an authentication is still loading the old profile
+        when(repository.findProfileById(1L))
+                .thenAnswer(invocation -> {
+                    cache.invalidate(1L);
+                    return Optional.of(profile(UserRole.SELLER));
+                })
+                .thenReturn(Optional.of(profile(UserRole.BIDDER)));
+
+        assertThat(cache.get(1L)).map(UserProfile::role).contains(UserRole.SELLER);
+        assertThat(cache.get(1L)).map(UserProfile::role).contains(UserRole.BIDDER);
+    }
+
+    @Test
+    void profileLoadedWithoutConcurrentEvictionIsCached() {
+        when(repository.findProfileById(1L))
+                .thenReturn(Optional.of(profile(UserRole.SELLER)))
+                .thenReturn(Optional.of(profile(UserRole.BIDDER)));
+
+        assertThat(cache.get(1L)).map(UserProfile::role).contains(UserRole.SELLER);
+        assertThat(cache.get(1L)).map(UserProfile::role).contains(UserRole.SELLER);
+    }
+
+    private static UserProfile profile(UserRole role) {
+        return new UserProfile(1L, "user@example.com", "User", "en", "US", role, 0, 0, true, false);
+    }
+}
@@ -0,0 +1,100 @@
+package wnc.auction.backend.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import wnc.auction.backend.cache.BlockedBidderIndex;
+import wnc.auction.backend.model.AutoBidMandate;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.repository.AutoBidMandateRepository;
+import wnc.auction.backend.repository.BidRepository;
+
+class AutoBidMandateStoreTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-01T12:00:00Z"), ZoneId.of("UTC"));
+
+    private final AutoBidMandateRepository repository = mock(AutoBidMandateRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+    private final AutoBidMandateStore store = new AutoBidMandateStore(
+            repository,
+            mock(BidRepository.class),
+            mock(BlockedBidderIndex.class),
+            redisTemplate,
+            listenerContainer,
+            CLOCK);
+
+    private final Product product = Product.builder().id(1L).build();
+    private MessageListener listener;
+
+    @BeforeEach
+    void setUp() {
+        store.subscribe();
+        ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(captor.capture(), any(Topic.class));
+        listener = captor.getValue();
+    }
+
+    @Test
+    void mandateRaisedOnAnotherNodeEvictsTheBook() {
+        when(repository.findByProductId(1L))
+                .thenReturn(List.of(mandate(7L, "100.00")))
+                .thenReturn(List.of(mandate(7L, "250.00")));
+        assertThat(store.strongestCompetitor(1L, 9L).orElseThrow().maxAmount()).isEqualByComparingTo("100.00");
+
+        listener.onMessage(new DefaultMessage("auto-bid-books:invalidate".getBytes(), "other-node:1".getBytes()), null);
+
+        assertThat(store.strongestCompetitor(1L, 9L).orElseThrow().maxAmount()).isEqualByComparingTo("250.00");
+    }
+
+    @Test
+    void ownChangeIsPublishedWithoutEvictingTheLocalBook() {
+        when(repository.findByProductId(1L)).thenReturn(List.of());
+        when(repository.findByProductIdAndUserId(1L, 7L)).thenReturn(Optional.empty());
+
+        store.upsert(product, User.builder().id(7L).build(), new BigDecimal("300.00"));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("auto-bid-books:invalidate"), published.capture());
+        listener.onMessage(
+                new DefaultMessage(
+                        "auto-bid-books:invalidate".getBytes(),
+                        published.getValue().getBytes()),
+                null);
+
+        assertThat(store.strongestCompetitor(1L, 9L).orElseThrow().maxAmount()).isEqualByComparingTo("300.00");
+        verify(repository, times(1)).findByProductId(1L);
+        ArgumentCaptor<AutoBidMandate> saved = ArgumentCaptor.forClass(AutoBidMandate.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getMaxSetAt()).isEqualTo(LocalDateTime.now(CLOCK));
+    }
+
+    private AutoBidMandate mandate(Long userId, String maxAmount) {
+        return AutoBidMandate.builder()
+                .product(product)
+                .user(User.builder().id(userId).build())
+                .maxAmount(new BigDecimal(maxAmount))
+                .maxSetAt(LocalDateTime.now(CLOCK))
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package wnc.auction.backend.scheduler.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Scheduler;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import wnc.auction.backend.engine.AutoBidMandateStore;
+import wnc.auction.backend.engine.BidSequencer;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.outbox.OutboxPublisher;
+import wnc.auction.backend.repository.ProductRepository;
+import wnc.auction.backend.service.AuctionSchedulerService;
+import wnc.auction.backend.service.TransactionService;
+
+class AuctionClosingJobTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDateTime END_TIME = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_789);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AuctionSchedulerService auctionSchedulerService = mock(AuctionSchedulerService.class);
+    private BidSequencer bidSequencer;
+    private AuctionClosingJob job;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation ->
+                        invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        bidSequencer = new BidSequencer(new SimpleMeterRegistry(), 1, 10, 5);
+        job = newJob(auctionSchedulerService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bidSequencer.shutdown();
+    }
+
+    @Test
+    void closesAuctionWhoseEndTimeHasSubMillisecondPrecision() {
+        Product product = product(END_TIME);
+
+        // What Quartz hands back for a trigger scheduled at END_TIME
+        job.close(product.getId(), firedAt(END_TIME));
+
+        assertThat(product.getStatus()).isEqualTo(ProductStatus.COMPLETED);
+        verify(productRepository).save(product);
+    }
+
+    @Test
+    void keepsAuctionExtendedPastTheFireTimeOpen() {
+        Product product = product(END_TIME.plusNanos(1_000_000));
+
+        job.close(product.getId(), firedAt(END_TIME));
+
+        assertThat(product.getStatus()).isEqualTo(ProductStatus.ACTIVE);
+        verify(productRepository, never()).save(any());
+        verify(auctionSchedulerService).rescheduleAuctionClose(product.getId(), product.getEndTime());
+    }
+
+    @Test
+    void closesAuctionWhoseTriggerFiredBeforeTheRescheduleArrived() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "auction-closing-job-test");
+        properties.setProperty("org.quartz.threadPool.threadCount", "1");
+        Scheduler scheduler = new StdSchedulerFactory(properties).getScheduler();
+        AuctionSchedulerService schedulerService = new AuctionSchedulerService(scheduler);
+        AuctionClosingJob quartzJob = newJob(schedulerService);
+        scheduler.setJobFactory((bundle, owner) -> quartzJob);
+        scheduler.start();
+        try {
+            LocalDateTime endTime = LocalDateTime.now().plusNanos(200_000_000);
+            Product product = product(endTime);
+            schedulerService.scheduleAuctionClose(product.getId(), endTime);
+
+            // A last-second bid extends the auction, its AUCTION_RESCHEDULE event is still in the outbox
+            LocalDateTime extendedTo = endTime.plusNanos(500_000_000);
+            product.setEndTime(extendedTo);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (product.getStatus() == ProductStatus.ACTIVE && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(product.getStatus()).isEqualTo(ProductStatus.COMPLETED);
+
+            // The late event finds the durable job without a trigger and adds one instead of failing
+            scheduler.standby();
+            schedulerService.rescheduleAuctionClose(product.getId(), extendedTo);
+            assertThat(scheduler.checkExists(TriggerKey.triggerKey("trigger_1", "auction-triggers")))
+                    .isTrue();
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    private AuctionClosingJob newJob(AuctionSchedulerService schedulerService) {
+        return new AuctionClosingJob(
+                productRepository,
+                mock(TransactionService.class),
+                bidSequencer,
+                mock(AutoBidMandateStore.class),
+                mock(OutboxPublisher.class),
+                schedulerService,
+                transactionTemplate,
+                new SimpleMeterRegistry(),
+                Clock.fixed(END_TIME.plusSeconds(1).atZone(ZONE).toInstant(), ZONE));
+    }
+
+    private Product product(LocalDateTime endTime) {
+        Product product = Product.builder()
+                .id(1L)
+                .name("Lamp")
+                .currentPrice(new BigDecimal("100.00"))
+                .seller(User.builder().id(2L).build())
+                .endTime(endTime)
+                .build();
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        return product;
+    }
+
+    private static LocalDateTime firedAt(LocalDateTime endTime) {
+        Date fireTime = Date.from(endTime.atZone(ZONE).toInstant());
+        return LocalDateTime.ofInstant(fireTime.toInstant(), ZONE);
+    }
+}
@@ -0,0 +1,615 @@
+package wnc.auction.backend.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import wnc.auction.backend.dto.model.BidDto;
+import wnc.auction.backend.dto.request.PlaceBidRequest;
+import wnc.auction.backend.model.Category;
+import wnc.auction.backend.model.Product;
+import wnc.auction.backend.model.SystemConfig;
+import wnc.auction.backend.model.User;
+import wnc.auction.backend.model.enumeration.ProductStatus;
+import wnc.auction.backend.model.enumeration.UserRole;
+import wnc.auction.backend.repository.CategoryRepository;
+import wnc.auction.backend.repository.ProductRepository;
+import wnc.auction.backend.repository.SystemConfigRepository;
+import wnc.auction.backend.repository.UserRepository;
+import wnc.auction.backend.scheduler.job.AuctionClosingJob;
+import wnc.auction.backend.security.UserPrincipal;
+import wnc.auction.backend.service.BidService;
+
+/**
+ * Replays the last minute of many concurrent auctions against the real bid path (sequencer lanes, auto-bid
+ * resolution, auto-extend, outbox, leaderboard) on a {@link VirtualClock}, then checks that no accepted bid was
+ * lost or duplicated and that every auction closed in a consistent state.
+ *
+ * <p>Load ramps up toward the end of the bidding phase and is spread over auctions with a Zipf popularity
+ * curve. Auctions are closed by this driver when virtual time reaches their (possibly extended) end time, with
+ * sniper bids racing each closure. Run with {@code mvn -Psimulation test}; sizes are in
+ * {@code application-simulation.yml} and can be overridden with {@code -Dsimulation.bidders=...} etc. The report
+ * is printed and written to {@code target/simulation/endgame-report.txt}.
+ */
+@Tag("simulation")
+@SpringBootTest
+@ActiveProfiles("simulation")
+@Import(SimulationConfig.class)
+@EmbeddedKafka(
+        partitions = 1,
+        topics = {"audit-log", "exception-log"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class EndgameSimulationTest {
+
+    private static final BigDecimal STARTING_PRICE = new BigDecimal("100.00");
+    private static final BigDecimal STEP_PRICE = new BigDecimal("5.00");
+    private static final int CLOSING_THREADS = 10; // Same as the Quartz thread pool
+    private static final long MAX_TICKS = 1_000_000;
+    private static final Duration OUTBOX_DRAIN_TIMEOUT = Duration.ofMinutes(2);
+
+    @Autowired
+    private BidService bidService;
+
+    @Autowired
+    private AuctionClosingJob auctionClosingJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SystemConfigRepository systemConfigRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VirtualClock clock;
+
+    @Autowired
+    private SimulationConfig.CountingMailSender mailSender;
+
+    @Value("${simulation.bidders}")
+    private int bidderCount;
+
+    @Value("${simulation.auctions}")
+    private int auctionCount;
+
+    @Value("${simulation.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${simulation.tick-millis}")
+    private int tickMillis;
+
+    @Value("${simulation.bids}")
+    private int bidBudget;
+
+    @Value("${simulation.seed}")
+    private long seed;
+
+    @Value("${simulation.auto-bid-ratio}")
+    private double autoBidRatio;
+
+    @Value("${simulation.retry-ratio}")
+    private double retryRatio;
+
+    @Value("${simulation.popularity-skew}")
+    private double popularitySkew;
+
+    @Value("${simulation.sniper-bids}")
+    private int sniperBids;
+
+    @Value("${simulation.sniper-rounds}")
+    private int sniperRounds;
+
+    @Value("${simulation.max-p99-ms}")
+    private long maxP99Millis;
+
+    @Value("${simulation.report}")
+    private String reportPath;
+
+    private final ConcurrentLinkedQueue<Long> bidLatencies = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> closeLatencies = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> acceptedBidIds = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<RetriedBid> retriedBids = new ConcurrentLinkedQueue<>();
+    private final AtomicLong retryMismatches = new AtomicLong();
+
+    private List<Long> bidderIds;
+    private List<Long> auctionIds;
+    private double[] popularity;
+
+    // One bid decided by the driver (deterministic for a seed), executed concurrently
+    private record PlannedBid(long productId, long bidderId, int raiseSteps, int autoBidHeadroom, String retryKey) {}
+
+    private record RetriedBid(long productId, long bidderId, BigDecimal amount) {}
+
+    @Test
+    void endgame() throws Exception {
+        seed();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long biddingTicks = durationSeconds * 1000L / tickMillis;
+        int[] bidsPerTick = rampedLoad(biddingTicks);
+        Map<Long, Integer> closeRounds = new HashMap<>();
+
+        long startedAt = System.nanoTime();
+        try (ExecutorService bidders = Executors.newVirtualThreadPerTaskExecutor();
+                ExecutorService closers = Executors.newFixedThreadPool(CLOSING_THREADS)) {
+            for (long tick = 0; ; tick++) {
+                assertThat(tick).as("simulation did not converge").isLessThan(MAX_TICKS);
+
+                List<Future<?>> work = new ArrayList<>();
+                if (tick < biddingTicks) {
+                    for (int i = 0; i < bidsPerTick[(int) tick]; i++) {
+                        PlannedBid bid = plan(random, auctionIds.get(pickAuction(random)));
+                        work.add(bidders.submit(() -> place(bid)));
+                    }
+                }
+
+                // Close what is due, with snipers aiming at the closing auctions during the first rounds
+                LocalDateTime now = clock.now();
+                List<Long> due = dueAuctions(now);
+                for (Long productId : due) {
+                    if (closeRounds.merge(productId, 1, Integer::sum) <= sniperRounds) {
+                        for (int i = 0; i < sniperBids; i++) {
+                            PlannedBid bid = plan(random, productId);
+                            work.add(bidders.submit(() -> place(bid)));
+                        }
+                    }
+                    work.add(closers.submit(() -> close(productId, now)));
+                }
+                awaitAll(work);
+
+                if (tick + 1 >= biddingTicks) {
+                    LocalDateTime next = nextEndTime();
+                    if (next == null) {
+                        break;
+                    }
+                    // Nothing left but extended auctions: jump straight to the next closure
+                    if (due.isEmpty()) {
+                        clock.advanceTo(next);
+                        continue;
+                    }
+                }
+                clock.advance(Duration.ofMillis(tickMillis));
+            }
+        }
+        Duration simulated = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        long drainStartedAt = System.nanoTime();
+        boolean drained = awaitOutboxDrained();
+        Duration drain = Duration.ofNanos(System.nanoTime() - drainStartedAt);
+
+        Report report = report(simulated, drain, drained);
+        report.print(Path.of(reportPath));
+
+        assertThat(report.lostBids)
+                .as("accepted bids missing from the database")
+                .isZero();
+        assertThat(report.duplicateBids)
+                .as("bids duplicated by retried requests")
+                .isZero();
+        assertThat(report.violations).as("auction invariant violations").isEmpty();
+        assertThat(report.openAuctions).as("auctions left open").isZero();
+        assertThat(drained).as("outbox drained").isTrue();
+        assertThat(report.p99Millis).as("p99 bid latency (ms)").isLessThanOrEqualTo(maxP99Millis);
+    }
+
+    // ---- setup
+
+    private void seed() {
+        // Extend by one minute on any bid in the last minute (values are in minutes)
+        saveConfig("AUCTION_EXTEND_THRESHOLD", "1");
+        saveConfig("AUCTION_EXTEND_DURATION", "1");
+
+        Category category =
+                categoryRepository.save(Category.builder().name("Simulation").build());
+        User seller = userRepository.save(user("seller@simulation.local", "Simulation Seller", UserRole.SELLER));
+
+        List<User> bidders = new ArrayList<>(bidderCount);
+        for (int i = 0; i < bidderCount; i++) {
+            bidders.add(user("bidder" + i + "@simulation.local", "Bidder " + i, UserRole.BIDDER));
+        }
+        bidderIds = userRepository.saveAll(bidders).stream().map(User::getId).toList();
+
+        // End times spread over the second half of the bidding phase, on tick boundaries so that closures and
+        // sniper bids land exactly on the end time
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime now = clock.now();
+        long halfTicks = durationSeconds * 500L / tickMillis;
+        List<Product> products = new ArrayList<>(auctionCount);
+        for (int i = 0; i < auctionCount; i++) {
+            long endOffsetMillis = (halfTicks + random.nextLong(halfTicks)) * tickMillis;
+            products.add(Product.builder()
+                    .name("Lot " + i)
+                    .description("Simulated auction " + i)
+                    .startingPrice(STARTING_PRICE)
+                    .currentPrice(STARTING_PRICE)
+                    .stepPrice(STEP_PRICE)
+                    .category(category)
+                    .seller(seller)
+                    .startTime(now.minusDays(1))
+                    .endTime(now.plus(Duration.ofMillis(endOffsetMillis)))
+                    .autoExtend(true)
+                    .allowUnratedBidders(true)
+                    .status(ProductStatus.ACTIVE)
+                    .bidCount(0)
+                    .images(new ArrayList<>())
+                    .build());
+        }
+        auctionIds =
+                productRepository.saveAll(products).stream().map(Product::getId).toList();
+
+        // Zipf: the k-th most popular auction gets weight 1 / k^s
+        popularity = new double[auctionCount];
+        double total = 0;
+        for (int k = 0; k < auctionCount; k++) {
+            total += 1 / Math.pow(k + 1, popularitySkew);
+            popularity[k] = total;
+        }
+        for (int k = 0; k < auctionCount; k++) {
+            popularity[k] /= total;
+        }
+    }
+
+    private void saveConfig(String key, String value) {
+        systemConfigRepository.save(SystemConfig.builder().key(key).value(value).build());
+    }
+
+    private static User user(String email, String fullName, UserRole role) {
+        return User.builder()
+                .email(email)
+                .password("{noop}simulation")
+                .fullName(fullName)
+                .role(role)
+                .emailVerified(true)
+                .isActive(true)
+                .positiveRatings(0)
+                .negativeRatings(0)
+                .build();
+    }
+
+    // Bids per tick growing with the cube of elapsed time, summing to the bid budget
+    private int[] rampedLoad(long ticks) {
+        double[] weights = new double[(int) ticks];
+        double total = 0;
+        for (int i = 0; i < ticks; i++) {
+            double progress = (double) i / ticks;
+            weights[i] = 1 + 9 * progress * progress * progress;
+            total += weights[i];
+        }
+        int[] load = new int[(int) ticks];
+        double carry = 0;
+        for (int i = 0; i < ticks; i++) {
+            double exact = bidBudget * weights[i] / total + carry;
+            load[i] = (int) exact;
+            carry = exact - load[i];
+        }
+        return load;
+    }
+
+    private int pickAuction(SplittableRandom random) {
+        int index = Arrays.binarySearch(popularity, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, auctionCount - 1);
+    }
+
+    private PlannedBid plan(SplittableRandom random, long productId) {
+        long bidderId = bidderIds.get(random.nextInt(bidderIds.size()));
+        int headroom = random.nextDouble() < autoBidRatio ? 5 + random.nextInt(45) : 0;
+        String retryKey =
+                random.nextDouble() < retryRatio ? new UUID(random.nextLong(), random.nextLong()).toString() : null;
+        return new PlannedBid(productId, bidderId, 1 + random.nextInt(3), headroom, retryKey);
+    }
+
+    // ---- load
+
+    private void place(PlannedBid plan) {
+        authenticate(plan.bidderId());
+        try {
+            // What the bidder's page shows right now; concurrent bidders see the same price and some lose
+            Product product = productRepository.findById(plan.productId()).orElseThrow();
+            BigDecimal amount =
+                    product.getCurrentPrice().add(STEP_PRICE.multiply(BigDecimal.valueOf(plan.raiseSteps())));
+            BigDecimal maxAutoBid = plan.autoBidHeadroom() == 0
+                    ? null
+                    : amount.add(STEP_PRICE.multiply(BigDecimal.valueOf(plan.autoBidHeadroom())));
+            PlaceBidRequest request = new PlaceBidRequest(plan.productId(), amount, maxAutoBid);
+
+            long startedAt = System.nanoTime();
+            try {
+                BidDto bid = bidService.placeBid(request, plan.retryKey());
+                bidLatencies.add(System.nanoTime() - startedAt);
+                acceptedBidIds.put(bid.getId(), Boolean.TRUE);
+
+                // A client retrying after a lost response must get the same bid back
+                if (plan.retryKey() != null) {
+                    BidDto replay = bidService.placeBid(request, plan.retryKey());
+                    if (!Objects.equals(replay.getId(), bid.getId())) {
+                        retryMismatches.incrementAndGet();
+                    }
+                    retriedBids.add(new RetriedBid(plan.productId(), plan.bidderId(), amount));
+                }
+            } catch (RuntimeException e) {
+                bidLatencies.add(System.nanoTime() - startedAt);
+                rejections.computeIfAbsent(reason(e), k -> new LongAdder()).increment();
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // As the Quartz trigger would: fired for the end time known when the auction became due
+    private void close(Long productId, LocalDateTime scheduledFor) {
+        long startedAt = System.nanoTime();
+        auctionClosingJob.close(productId, scheduledFor);
+        closeLatencies.add(System.nanoTime() - startedAt);
+    }
+
+    private static void authenticate(long userId) {
+        UserPrincipal principal =
+                UserPrincipal.builder().id(userId).role(UserRole.BIDDER.name()).build();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    // Amounts vary per bid; group rejections by their wording only
+    private static String reason(RuntimeException e) {
+        String message = e.getMessage() == null ? "" : e.getMessage().replaceAll("\\d[\\d.,]*", "#");
+        return e.getClass().getSimpleName() + ": " + message;
+    }
+
+    private static void awaitAll(List<Future<?>> work) throws InterruptedException, ExecutionException {
+        for (Future<?> future : work) {
+            future.get();
+        }
+    }
+
+    private List<Long> dueAuctions(LocalDateTime now) {
+        return jdbcTemplate.queryForList(
+                "select id from products where status = 'ACTIVE' and end_time <= ? order by end_time",
+                Long.class,
+                Timestamp.valueOf(now));
+    }
+
+    private LocalDateTime nextEndTime() {
+        Timestamp next = jdbcTemplate.queryForObject(
+                "select min(end_time) from products where status = 'ACTIVE'", Timestamp.class);
+        return next == null ? null : next.toLocalDateTime();
+    }
+
+    private boolean awaitOutboxDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + OUTBOX_DRAIN_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Long pending = jdbcTemplate.queryForObject(
+                    "select (select count(*) from outbox_events where status in ('PENDING', 'PROCESSING'))"
+                            + " + (select count(*) from email_outbox where status in ('PENDING', 'PROCESSING'))",
+                    Long.class);
+            if (pending != null && pending == 0) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    // ---- report
+
+    private Report report(Duration simulated, Duration drain, boolean drained) {
+        Report report = new Report();
+        report.simulated = simulated;
+        report.drain = drain;
+        report.drained = drained;
+
+        long[] latencies = sorted(bidLatencies);
+        report.attempts = latencies.length;
+        report.accepted = acceptedBidIds.size();
+        report.p50Millis = percentileMillis(latencies, 0.50);
+        report.p99Millis = percentileMillis(latencies, 0.99);
+        report.maxMillis = percentileMillis(latencies, 1.0);
+        new TreeMap<>(rejections).forEach((reason, count) -> report.rejections.put(reason, count.sum()));
+
+        long[] closes = sorted(closeLatencies);
+        report.closeP99Millis = percentileMillis(closes, 0.99);
+        report.closeMaxMillis = percentileMillis(closes, 1.0);
+        Timer lag = meterRegistry.find("auction.closing.lag").timer();
+        report.closingLagMaxMillis = lag == null ? 0 : (long) lag.max(TimeUnit.MILLISECONDS);
+
+        // Lost: acknowledged to the bidder but not in the database
+        Set<Long> stored = new HashSet<>(jdbcTemplate.queryForList("select id from bids", Long.class));
+        report.storedBids = stored.size();
+        report.lostBids = acceptedBidIds.keySet().stream()
+                .filter(id -> !stored.contains(id))
+                .count();
+
+        // Duplicated: a retried request that produced a second bid or a different answer
+        long duplicateRows = 0;
+        for (RetriedBid retried : retriedBids) {
+            Long rows = jdbcTemplate.queryForObject(
+                    "select count(*) from bids where product_id = ? and user_id = ? and amount = ? and is_auto_bid = false",
+                    Long.class,
+                    retried.productId(),
+                    retried.bidderId(),
+                    retried.amount());
+            if (rows != null && rows > 1) {
+                duplicateRows += rows - 1;
+            }
+        }
+        report.retried = retriedBids.size();
+        report.duplicateBids = duplicateRows + retryMismatches.get();
+
+        checkAuctions(report);
+
+        report.extensions = count("select count(*) from outbox_events where type = 'AUCTION_RESCHEDULE'");
+        report.failedEvents = count("select count(*) from outbox_events where status = 'FAILED'");
+        report.mailsSent = mailSender.sent();
+        return report;
+    }
+
+    // Per auction: final state matches its bid history, and bid amounts never went down in commit order
+    private void checkAuctions(Report report) {
+        Map<Long, List<Map<String, Object>>> bidsByProduct = new HashMap<>();
+        for (Map<String, Object> row :
+                jdbcTemplate.queryForList("select id, product_id, user_id, amount from bids order by product_id, id")) {
+            bidsByProduct
+                    .computeIfAbsent(((Number) row.get("product_id")).longValue(), k -> new ArrayList<>())
+                    .add(row);
+        }
+
+        for (Map<String, Object> product : jdbcTemplate.queryForList(
+                "select id, status, current_price, bid_count, current_bidder_id from products")) {
+            long id = ((Number) product.get("id")).longValue();
+            List<Map<String, Object>> bids = bidsByProduct.getOrDefault(id, List.of());
+
+            if (ProductStatus.ACTIVE.name().equals(product.get("status"))) {
+                report.openAuctions++;
+            }
+            if (((Number) product.get("bid_count")).intValue() != bids.size()) {
+                report.violations.add(
+                        "product " + id + ": bid_count " + product.get("bid_count") + " but " + bids.size() + " bids");
+            }
+            if (bids.isEmpty()) {
+                continue;
+            }
+
+            BigDecimal previous = BigDecimal.ZERO;
+            for (Map<String, Object> bid : bids) {
+                BigDecimal amount = (BigDecimal) bid.get("amount");
+                if (amount.compareTo(previous) < 0) {
+                    report.violations.add("product " + id + ": bid " + bid.get("id") + " of " + amount
+                            + " accepted after " + previous);
+                }
+                previous = amount;
+            }
+
+            Map<String, Object> last = bids.get(bids.size() - 1);
+            if (((BigDecimal) product.get("current_price")).compareTo((BigDecimal) last.get("amount")) != 0) {
+                report.violations.add("product " + id + ": current_price " + product.get("current_price")
+                        + " but last bid " + last.get("amount"));
+            }
+            if (!Objects.equals(product.get("current_bidder_id"), last.get("user_id"))) {
+                report.violations.add("product " + id + ": current_bidder " + product.get("current_bidder_id")
+                        + " but last bidder " + last.get("user_id"));
+            }
+        }
+    }
+
+    private long count(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value == null ? 0 : value;
+    }
+
+    private static long[] sorted(ConcurrentLinkedQueue<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, index)]);
+    }
+
+    private final class Report {
+        Duration simulated;
+        Duration drain;
+        boolean drained;
+        long attempts;
+        long accepted;
+        long storedBids;
+        long retried;
+        long p50Millis;
+        long p99Millis;
+        long maxMillis;
+        long closeP99Millis;
+        long closeMaxMillis;
+        long closingLagMaxMillis;
+        long lostBids;
+        long duplicateBids;
+        long openAuctions;
+        long extensions;
+        long failedEvents;
+        long mailsSent;
+        final Map<String, Long> rejections = new TreeMap<>();
+        final List<String> violations = new ArrayList<>();
+
+        void print(Path path) throws IOException {
+            StringBuilder out = new StringBuilder();
+            out.append("Endgame simulation report\n");
+            out.append(String.format(
+                    "  setup        %d bidders, %d auctions, %ds bidding phase, %d bids budget, seed %d%n",
+                    bidderCount, auctionCount, durationSeconds, bidBudget, seed));
+            out.append(String.format("  wall time    %d ms%n", simulated.toMillis()));
+            out.append(String.format(
+                    "  bids         %d attempted, %d accepted, %d stored (incl. auto-bids), %d retried%n",
+                    attempts, accepted, storedBids, retried));
+            out.append(
+                    String.format("  latency      p50 %d ms, p99 %d ms, max %d ms%n", p50Millis, p99Millis, maxMillis));
+            rejections.forEach((reason, count) -> out.append(String.format("  rejected     %6d  %s%n", count, reason)));
+            out.append(String.format("  lost         %d%n", lostBids));
+            out.append(String.format("  duplicated   %d%n", duplicateBids));
+            out.append(String.format("  extensions   %d%n", extensions));
+            out.append(String.format(
+                    "  closing      p99 %d ms, max %d ms wall; max lag %d ms virtual; %d left open%n",
+                    closeP99Millis, closeMaxMillis, closingLagMaxMillis, openAuctions));
+            out.append(String.format(
+                    "  outbox       %s in %d ms, %d failed, %d mails sent%n",
+                    drained ? "drained" : "NOT drained", drain.toMillis(), failedEvents, mailsSent));
+            out.append(String.format("  violations   %d%n", violations.size()));
+            violations.stream()
+                    .limit(20)
+                    .forEach(v -> out.append("    ").append(v).append('\n'));
+
+            System.out.print(out);
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.writeString(path, out);
+        }
+    }
+}
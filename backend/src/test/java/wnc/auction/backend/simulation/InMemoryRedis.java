@@ -0,0 +1,478 @@
+package wnc.auction.backend.simulation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+
+/**
+ * Single-node, in-process stand-in for the Redis data the application uses: strings, hashes, sorted sets,
+ * expiry and pub/sub. Every command runs under one lock, which also gives MULTI/EXEC and scripts their
+ * atomicity. Lua is not interpreted; scripts are registered by SHA1 with an equivalent Java implementation.
+ *
+ * <p>Expiry uses the wall clock: TTLs in the application are minutes to days, far longer than a simulation.
+ */
+public final class InMemoryRedis {
+
+    /** Java equivalent of a Lua script, called with KEYS and ARGV as raw bytes. */
+    @FunctionalInterface
+    public interface Script {
+        Object run(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args);
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Bytes, Object> data = new HashMap<>();
+    private final Map<Bytes, Long> expiresAt = new HashMap<>();
+    private final Map<String, Script> scripts = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Messages reach subscribers asynchronously and in publish order, as over a real subscriber connection
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("in-memory-redis-pubsub").daemon().factory());
+
+    // Keys are compared by content, ordered like Redis (unsigned lexicographic)
+    record Bytes(byte[] value) implements Comparable<Bytes> {
+
+        static Bytes of(byte[] value) {
+            return new Bytes(value);
+        }
+
+        static Bytes of(String value) {
+            return new Bytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Bytes bytes && Arrays.equals(value, bytes.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(value);
+        }
+
+        @Override
+        public int compareTo(Bytes other) {
+            return Arrays.compareUnsigned(value, other.value);
+        }
+
+        @Override
+        public String toString() {
+            return new String(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private record ZEntry(double score, Bytes member) implements Comparable<ZEntry> {
+        @Override
+        public int compareTo(ZEntry other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : member.compareTo(other.member);
+        }
+    }
+
+    private static final class ZSet {
+        final Map<Bytes, Double> scores = new HashMap<>();
+        final TreeSet<ZEntry> ordered = new TreeSet<>();
+    }
+
+    record Subscriber(MessageListener listener, Set<Bytes> channels) {}
+
+    <T> T locked(Supplier<T> command) {
+        lock.lock();
+        try {
+            return command.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Held across MULTI ... EXEC by the calling thread
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+
+    // ---- keys
+
+    public boolean exists(byte[] key) {
+        return locked(() -> live(Bytes.of(key)) != null);
+    }
+
+    public long del(byte[]... keys) {
+        return locked(() -> {
+            long removed = 0;
+            for (byte[] key : keys) {
+                Bytes k = Bytes.of(key);
+                if (live(k) != null) {
+                    removed++;
+                }
+                data.remove(k);
+                expiresAt.remove(k);
+            }
+            return removed;
+        });
+    }
+
+    public boolean expire(byte[] key, long millis) {
+        return locked(() -> {
+            Bytes k = Bytes.of(key);
+            if (live(k) == null) {
+                return false;
+            }
+            expiresAt.put(k, System.currentTimeMillis() + millis);
+            return true;
+        });
+    }
+
+    public long ttlMillis(byte[] key) {
+        return locked(() -> {
+            Bytes k = Bytes.of(key);
+            if (live(k) == null) {
+                return -2L;
+            }
+            Long at = expiresAt.get(k);
+            return at == null ? -1L : Math.max(0, at - System.currentTimeMillis());
+        });
+    }
+
+    // ---- strings
+
+    public byte[] get(byte[] key) {
+        return locked(() -> live(Bytes.of(key)) instanceof byte[] value ? value : null);
+    }
+
+    /**
+     * SET with optional PX and NX/XX.
+     *
+     * @param ttlMillis expiry, or a negative value to clear it (0 keeps the current TTL, as KEEPTTL)
+     */
+    public boolean set(byte[] key, byte[] value, long ttlMillis, boolean ifAbsent, boolean ifPresent) {
+        return locked(() -> {
+            Bytes k = Bytes.of(key);
+            boolean present = live(k) != null;
+            if ((ifAbsent && present) || (ifPresent && !present)) {
+                return false;
+            }
+            data.put(k, value);
+            if (ttlMillis > 0) {
+                expiresAt.put(k, System.currentTimeMillis() + ttlMillis);
+            } else if (ttlMillis < 0) {
+                expiresAt.remove(k);
+            }
+            return true;
+        });
+    }
+
+    public long incrBy(byte[] key, long delta) {
+        return locked(() -> {
+            Bytes k = Bytes.of(key);
+            long current =
+                    live(k) instanceof byte[] value ? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : 0;
+            long next = current + delta;
+            data.put(k, Long.toString(next).getBytes(StandardCharsets.UTF_8));
+            return next;
+        });
+    }
+
+    // ---- hashes
+
+    public byte[] hGet(byte[] key, byte[] field) {
+        return locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, false);
+            return hash == null ? null : hash.get(Bytes.of(field));
+        });
+    }
+
+    public List<byte[]> hMGet(byte[] key, byte[]... fields) {
+        return locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, false);
+            List<byte[]> values = new ArrayList<>(fields.length);
+            for (byte[] field : fields) {
+                values.add(hash == null ? null : hash.get(Bytes.of(field)));
+            }
+            return values;
+        });
+    }
+
+    public Map<byte[], byte[]> hGetAll(byte[] key) {
+        return locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, false);
+            Map<byte[], byte[]> copy = new HashMap<>();
+            if (hash != null) {
+                hash.forEach((field, value) -> copy.put(field.value(), value));
+            }
+            return copy;
+        });
+    }
+
+    public boolean hSet(byte[] key, byte[] field, byte[] value) {
+        return locked(() -> hash(key, true).put(Bytes.of(field), value) == null);
+    }
+
+    public void hMSet(byte[] key, Map<byte[], byte[]> values) {
+        locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, true);
+            values.forEach((field, value) -> hash.put(Bytes.of(field), value));
+            return null;
+        });
+    }
+
+    public long hIncrBy(byte[] key, byte[] field, long delta) {
+        return locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, true);
+            byte[] value = hash.get(Bytes.of(field));
+            long next = (value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8))) + delta;
+            hash.put(Bytes.of(field), Long.toString(next).getBytes(StandardCharsets.UTF_8));
+            return next;
+        });
+    }
+
+    public long hDel(byte[] key, byte[]... fields) {
+        return locked(() -> {
+            Map<Bytes, byte[]> hash = hash(key, false);
+            if (hash == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (byte[] field : fields) {
+                if (hash.remove(Bytes.of(field)) != null) {
+                    removed++;
+                }
+            }
+            dropIfEmpty(Bytes.of(key), hash.isEmpty());
+            return removed;
+        });
+    }
+
+    // ---- sorted sets
+
+    // Returns true if the member was added (false if only its score changed)
+    public boolean zAdd(byte[] key, double score, byte[] member) {
+        return locked(() -> {
+            ZSet zset = zset(key, true);
+            Bytes m = Bytes.of(member);
+            Double previous = zset.scores.put(m, score);
+            if (previous != null) {
+                zset.ordered.remove(new ZEntry(previous, m));
+            }
+            zset.ordered.add(new ZEntry(score, m));
+            return previous == null;
+        });
+    }
+
+    public long zRem(byte[] key, byte[]... members) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return 0L;
+            }
+            long removed = 0;
+            for (byte[] member : members) {
+                Bytes m = Bytes.of(member);
+                Double score = zset.scores.remove(m);
+                if (score != null) {
+                    zset.ordered.remove(new ZEntry(score, m));
+                    removed++;
+                }
+            }
+            dropIfEmpty(Bytes.of(key), zset.scores.isEmpty());
+            return removed;
+        });
+    }
+
+    public Double zScore(byte[] key, byte[] member) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            return zset == null ? null : zset.scores.get(Bytes.of(member));
+        });
+    }
+
+    public long zCard(byte[] key) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            return zset == null ? 0L : (long) zset.scores.size();
+        });
+    }
+
+    public Long zRank(byte[] key, byte[] member, boolean reverse) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return null;
+            }
+            Double score = zset.scores.get(Bytes.of(member));
+            if (score == null) {
+                return null;
+            }
+            ZEntry entry = new ZEntry(score, Bytes.of(member));
+            long below = zset.ordered.headSet(entry, false).size();
+            return reverse ? zset.scores.size() - 1 - below : below;
+        });
+    }
+
+    // Members by rank, inclusive bounds, negative indexes count from the end
+    public Set<byte[]> zRange(byte[] key, long start, long end, boolean reverse) {
+        return locked(() -> {
+            Set<byte[]> result = new LinkedHashSet<>();
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return result;
+            }
+            int size = zset.scores.size();
+            long from = start < 0 ? Math.max(0, size + start) : start;
+            long to = end < 0 ? size + end : Math.min(end, size - 1);
+            Iterator<ZEntry> iterator = reverse ? zset.ordered.descendingIterator() : zset.ordered.iterator();
+            for (long index = 0; iterator.hasNext() && index <= to; index++) {
+                ZEntry entry = iterator.next();
+                if (index >= from) {
+                    result.add(entry.member().value());
+                }
+            }
+            return result;
+        });
+    }
+
+    public long zCount(byte[] key, double min, double max) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return 0L;
+            }
+            return zset.scores.values().stream()
+                    .filter(score -> score >= min && score <= max)
+                    .count();
+        });
+    }
+
+    public List<byte[]> zRangeByScore(byte[] key, double min, double max) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return List.<byte[]>of();
+            }
+            return zset.ordered.stream()
+                    .filter(entry -> entry.score() >= min && entry.score() <= max)
+                    .map(entry -> entry.member().value())
+                    .toList();
+        });
+    }
+
+    public long zRemRangeByScore(byte[] key, double min, double max) {
+        return locked(() -> {
+            ZSet zset = zset(key, false);
+            if (zset == null) {
+                return 0L;
+            }
+            List<byte[]> members = zset.ordered.stream()
+                    .filter(entry -> entry.score() >= min && entry.score() <= max)
+                    .map(entry -> entry.member().value())
+                    .toList();
+            return zRem(key, members.toArray(byte[][]::new));
+        });
+    }
+
+    // ---- scripting
+
+    public void registerScript(String sha1, Script script) {
+        scripts.put(sha1, script);
+    }
+
+    public Object evalSha(String sha1, List<byte[]> keys, List<byte[]> args) {
+        Script script = scripts.get(sha1);
+        if (script == null) {
+            throw new IllegalStateException("NOSCRIPT No matching script " + sha1);
+        }
+        return locked(() -> script.run(this, keys, args));
+    }
+
+    // ---- pub/sub
+
+    public long publish(byte[] channel, byte[] message) {
+        Bytes c = Bytes.of(channel);
+        long receivers = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.channels().contains(c)) {
+                dispatcher.execute(() -> subscriber.listener().onMessage(new DefaultMessage(channel, message), null));
+                receivers++;
+            }
+        }
+        return receivers;
+    }
+
+    void addSubscriber(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void removeSubscriber(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // ---- internals (lock held)
+
+    private Object live(Bytes key) {
+        Long at = expiresAt.get(key);
+        if (at != null && at <= System.currentTimeMillis()) {
+            data.remove(key);
+            expiresAt.remove(key);
+            return null;
+        }
+        return data.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Bytes, byte[]> hash(byte[] key, boolean create) {
+        Bytes k = Bytes.of(key);
+        Object value = live(k);
+        if (value == null && create) {
+            value = new HashMap<Bytes, byte[]>();
+            data.put(k, value);
+        }
+        if (value != null && !(value instanceof Map)) {
+            throw wrongType(k);
+        }
+        return (Map<Bytes, byte[]>) value;
+    }
+
+    private ZSet zset(byte[] key, boolean create) {
+        Bytes k = Bytes.of(key);
+        Object value = live(k);
+        if (value == null && create) {
+            value = new ZSet();
+            data.put(k, value);
+        }
+        if (value != null && !(value instanceof ZSet)) {
+            throw wrongType(k);
+        }
+        return (ZSet) value;
+    }
+
+    private void dropIfEmpty(Bytes key, boolean empty) {
+        if (empty) {
+            data.remove(key);
+            expiresAt.remove(key);
+        }
+    }
+
+    private static IllegalStateException wrongType(Bytes key) {
+        return new IllegalStateException("WRONGTYPE Operation against key " + key + " holding the wrong kind of value");
+    }
+}
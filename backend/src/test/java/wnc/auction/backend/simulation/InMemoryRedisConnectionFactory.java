@@ -0,0 +1,401 @@
+package wnc.auction.backend.simulation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.Subscription;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.data.redis.core.types.Expiration;
+
+/**
+ * {@link RedisConnectionFactory} over an {@link InMemoryRedis}, covering the commands the application issues
+ * through {@code RedisTemplate}, {@code StringRedisTemplate} and {@code RedisMessageListenerContainer}. Any
+ * other command fails with {@link UnsupportedOperationException} so a new call site is noticed.
+ */
+public class InMemoryRedisConnectionFactory implements RedisConnectionFactory {
+
+    private final InMemoryRedis redis;
+
+    public InMemoryRedisConnectionFactory(InMemoryRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        return (RedisConnection) Proxy.newProxyInstance(
+                RedisConnection.class.getClassLoader(), new Class<?>[] {RedisConnection.class}, new Connection());
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        throw new UnsupportedOperationException("Cluster connections are not supported");
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return true;
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        throw new UnsupportedOperationException("Sentinel connections are not supported");
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return null;
+    }
+
+    private final class Connection implements InvocationHandler {
+
+        private boolean closed;
+        private volatile ChannelSubscription subscription;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Object[] a = args == null ? new Object[0] : args;
+
+            // RedisCommandsProvider: every command group is this connection
+            if (name.endsWith("Commands") && a.length == 0) {
+                return proxy;
+            }
+
+            Object result =
+                    switch (name) {
+                        case "close" -> {
+                            close();
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        // Results are returned directly, never queued for EXEC
+                        case "isQueueing", "isPipelined" -> false;
+                        case "getNativeConnection" -> redis;
+                        case "ping" -> "PONG";
+                        case "toString" -> "InMemoryRedisConnection";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == a[0];
+
+                        // Keys
+                        case "exists" ->
+                            a[0] instanceof byte[][] keys
+                                    ? Arrays.stream(keys).filter(redis::exists).count()
+                                    : redis.exists((byte[]) a[0]);
+                        case "del", "unlink" -> redis.del((byte[][]) a[0]);
+                        case "expire" -> redis.expire((byte[]) a[0], millis(a[1], 1000));
+                        case "pExpire" -> redis.expire((byte[]) a[0], millis(a[1], 1));
+                        case "pTtl" -> redis.ttlMillis((byte[]) a[0]);
+                        case "ttl" -> {
+                            long ttl = redis.ttlMillis((byte[]) a[0]);
+                            yield ttl < 0 ? ttl : ttl / 1000;
+                        }
+
+                        // Strings
+                        case "get" -> redis.get((byte[]) a[0]);
+                        case "mGet" ->
+                            Arrays.stream((byte[][]) a[0]).map(redis::get).toList();
+                        case "set" -> set(a);
+                        case "setNX" -> redis.set((byte[]) a[0], (byte[]) a[1], -1, true, false);
+                        case "setEx" -> redis.set((byte[]) a[0], (byte[]) a[2], (Long) a[1] * 1000, false, false);
+                        case "pSetEx" -> redis.set((byte[]) a[0], (byte[]) a[2], (Long) a[1], false, false);
+                        case "incr" -> redis.incrBy((byte[]) a[0], 1);
+                        case "incrBy" -> redis.incrBy((byte[]) a[0], ((Number) a[1]).longValue());
+
+                        // Hashes
+                        case "hGet" -> redis.hGet((byte[]) a[0], (byte[]) a[1]);
+                        case "hMGet" -> redis.hMGet((byte[]) a[0], (byte[][]) a[1]);
+                        case "hGetAll" -> redis.hGetAll((byte[]) a[0]);
+                        case "hSet" -> redis.hSet((byte[]) a[0], (byte[]) a[1], (byte[]) a[2]);
+                        case "hMSet" -> {
+                            @SuppressWarnings("unchecked")
+                            Map<byte[], byte[]> values = (Map<byte[], byte[]>) a[1];
+                            redis.hMSet((byte[]) a[0], values);
+                            yield null;
+                        }
+                        case "hDel" -> redis.hDel((byte[]) a[0], (byte[][]) a[1]);
+                        case "hIncrBy" -> redis.hIncrBy((byte[]) a[0], (byte[]) a[1], ((Number) a[2]).longValue());
+
+                        // Sorted sets
+                        case "zAdd" -> zAdd(a);
+                        case "zRem" -> redis.zRem((byte[]) a[0], (byte[][]) a[1]);
+                        case "zScore" -> redis.zScore((byte[]) a[0], (byte[]) a[1]);
+                        case "zCard" -> redis.zCard((byte[]) a[0]);
+                        case "zRank" -> redis.zRank((byte[]) a[0], (byte[]) a[1], false);
+                        case "zRevRank" -> redis.zRank((byte[]) a[0], (byte[]) a[1], true);
+                        case "zRange" -> redis.zRange((byte[]) a[0], (Long) a[1], (Long) a[2], false);
+                        case "zRevRange" -> redis.zRange((byte[]) a[0], (Long) a[1], (Long) a[2], true);
+                        case "zCount" -> {
+                            double[] bounds = bounds(a);
+                            yield redis.zCount((byte[]) a[0], bounds[0], bounds[1]);
+                        }
+                        case "zRemRangeByScore" -> {
+                            double[] bounds = bounds(a);
+                            yield redis.zRemRangeByScore((byte[]) a[0], bounds[0], bounds[1]);
+                        }
+
+                        // Transactions: commands apply immediately under the store lock held until EXEC
+                        case "multi" -> {
+                            redis.lock();
+                            yield null;
+                        }
+                        case "exec", "discard" -> {
+                            redis.unlock();
+                            yield "exec".equals(name) ? new ArrayList<>() : null;
+                        }
+                        case "watch", "unwatch" -> null;
+
+                        // Scripting
+                        case "evalSha" -> eval(sha(a[0]), a);
+                        case "eval" -> eval(DigestUtils.sha1DigestAsHex(utf8(a[0])), a);
+
+                        // Pub/sub
+                        case "publish" -> redis.publish((byte[]) a[0], (byte[]) a[1]);
+                        case "subscribe", "pSubscribe" -> {
+                            subscribe((MessageListener) a[0], (byte[][]) a[1], "pSubscribe".equals(name));
+                            yield null;
+                        }
+                        case "isSubscribed" -> subscription != null && subscription.isAlive();
+                        case "getSubscription" -> subscription;
+
+                        default -> {
+                            if (method.isDefault()) {
+                                try {
+                                    yield InvocationHandler.invokeDefault(proxy, method, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                            throw new UnsupportedOperationException("Redis command not supported: " + name);
+                        }
+                    };
+            return adapt(result, method.getReturnType());
+        }
+
+        private void close() {
+            closed = true;
+            redis.unlock();
+            ChannelSubscription current = subscription;
+            if (current != null) {
+                current.close();
+            }
+        }
+
+        private Object set(Object[] a) {
+            if (a.length == 2) {
+                return redis.set((byte[]) a[0], (byte[]) a[1], -1, false, false);
+            }
+            Expiration expiration = (Expiration) a[2];
+            SetOption option = (SetOption) a[3];
+            long ttl = expiration == null || expiration.isPersistent()
+                    ? -1
+                    : expiration.isKeepTtl() ? 0 : expiration.getExpirationTimeInMilliseconds();
+            return redis.set(
+                    (byte[]) a[0],
+                    (byte[]) a[1],
+                    ttl,
+                    option == SetOption.SET_IF_ABSENT,
+                    option == SetOption.SET_IF_PRESENT);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object zAdd(Object[] a) {
+            if (a[1] instanceof Set<?> tuples) {
+                long added = 0;
+                for (Tuple tuple : (Set<Tuple>) tuples) {
+                    if (redis.zAdd((byte[]) a[0], tuple.getScore(), tuple.getValue())) {
+                        added++;
+                    }
+                }
+                return added;
+            }
+            return redis.zAdd((byte[]) a[0], (Double) a[1], (byte[]) a[2]);
+        }
+
+        private Object eval(String sha1, Object[] a) {
+            int numKeys = (Integer) a[2];
+            List<byte[]> keysAndArgs = a.length > 3 ? Arrays.asList((byte[][]) a[3]) : List.of();
+            return redis.evalSha(
+                    sha1, keysAndArgs.subList(0, numKeys), keysAndArgs.subList(numKeys, keysAndArgs.size()));
+        }
+
+        // SUBSCRIBE blocks the calling thread until the subscription is closed, like a real connection
+        private void subscribe(MessageListener listener, byte[][] channels, boolean patterns) {
+            ChannelSubscription created = new ChannelSubscription(listener);
+            subscription = created;
+            if (patterns) {
+                created.pSubscribe(channels);
+            } else {
+                created.subscribe(channels);
+            }
+            try {
+                created.closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class ChannelSubscription implements Subscription {
+
+        private final MessageListener listener;
+        private final InMemoryRedis.Subscriber subscriber;
+        private final Set<InMemoryRedis.Bytes> patterns = new LinkedHashSet<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        ChannelSubscription(MessageListener listener) {
+            this.listener = listener;
+            this.subscriber = new InMemoryRedis.Subscriber(listener, new CopyOnWriteArraySet<>());
+            redis.addSubscriber(subscriber);
+        }
+
+        @Override
+        public void subscribe(byte[]... channels) {
+            for (byte[] channel : channels) {
+                subscriber.channels().add(InMemoryRedis.Bytes.of(channel));
+                if (listener instanceof SubscriptionListener subscriptionListener) {
+                    subscriptionListener.onChannelSubscribed(
+                            channel, subscriber.channels().size());
+                }
+            }
+        }
+
+        // Patterns are acknowledged but never matched: the application only publishes to fixed channels
+        @Override
+        public void pSubscribe(byte[]... channelPatterns) {
+            for (byte[] pattern : channelPatterns) {
+                patterns.add(InMemoryRedis.Bytes.of(pattern));
+                if (listener instanceof SubscriptionListener subscriptionListener) {
+                    subscriptionListener.onPatternSubscribed(pattern, patterns.size());
+                }
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            unsubscribe(getChannels().toArray(byte[][]::new));
+        }
+
+        @Override
+        public void unsubscribe(byte[]... channels) {
+            for (byte[] channel : channels) {
+                subscriber.channels().remove(InMemoryRedis.Bytes.of(channel));
+                if (listener instanceof SubscriptionListener subscriptionListener) {
+                    subscriptionListener.onChannelUnsubscribed(
+                            channel, subscriber.channels().size());
+                }
+            }
+            closeIfEmpty();
+        }
+
+        @Override
+        public void pUnsubscribe() {
+            pUnsubscribe(getPatterns().toArray(byte[][]::new));
+        }
+
+        @Override
+        public void pUnsubscribe(byte[]... channelPatterns) {
+            for (byte[] pattern : channelPatterns) {
+                patterns.remove(InMemoryRedis.Bytes.of(pattern));
+                if (listener instanceof SubscriptionListener subscriptionListener) {
+                    subscriptionListener.onPatternUnsubscribed(pattern, patterns.size());
+                }
+            }
+            closeIfEmpty();
+        }
+
+        @Override
+        public Collection<byte[]> getChannels() {
+            return subscriber.channels().stream()
+                    .map(InMemoryRedis.Bytes::value)
+                    .toList();
+        }
+
+        @Override
+        public Collection<byte[]> getPatterns() {
+            return patterns.stream().map(InMemoryRedis.Bytes::value).toList();
+        }
+
+        @Override
+        public MessageListener getListener() {
+            return listener;
+        }
+
+        @Override
+        public boolean isAlive() {
+            return closed.getCount() > 0;
+        }
+
+        @Override
+        public void close() {
+            redis.removeSubscriber(subscriber);
+            closed.countDown();
+        }
+
+        private void closeIfEmpty() {
+            if (subscriber.channels().isEmpty() && patterns.isEmpty()) {
+                close();
+            }
+        }
+    }
+
+    // Timeouts arrive as long (seconds or millis) or Duration depending on the overload
+    private static long millis(Object timeout, long unitMillis) {
+        return timeout instanceof Duration duration ? duration.toMillis() : (Long) timeout * unitMillis;
+    }
+
+    private static double[] bounds(Object[] a) {
+        if (a[1] instanceof Range<?> range) {
+            double min = range.getLowerBound()
+                    .getValue()
+                    .map(value -> ((Number) value).doubleValue())
+                    .orElse(Double.NEGATIVE_INFINITY);
+            double max = range.getUpperBound()
+                    .getValue()
+                    .map(value -> ((Number) value).doubleValue())
+                    .orElse(Double.POSITIVE_INFINITY);
+            return new double[] {min, max};
+        }
+        return new double[] {(Double) a[1], (Double) a[2]};
+    }
+
+    private static String sha(Object sha1) {
+        return sha1 instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : (String) sha1;
+    }
+
+    private static String utf8(Object script) {
+        return new String((byte[]) script, StandardCharsets.UTF_8);
+    }
+
+    // Boolean commands answered with counts and vice versa
+    private static Object adapt(Object result, Class<?> returnType) {
+        if (returnType == Boolean.class && result instanceof Long count) {
+            return count > 0;
+        }
+        if (returnType == Long.class && result instanceof Boolean flag) {
+            return flag ? 1L : 0L;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,225 @@
+package wnc.auction.backend.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mockito.Mockito;
+import org.quartz.Scheduler;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.test.util.ReflectionTestUtils;
+import wnc.auction.backend.engine.BidLeaderboard;
+import wnc.auction.backend.inbox.UnreadCounter;
+import wnc.auction.backend.realtime.SseBroadcaster;
+import wnc.auction.backend.realtime.WatcherPresence;
+
+/**
+ * Replaces the external systems of the application for the endgame simulation: Redis runs in-process, time is
+ * a {@link VirtualClock}, mail is counted instead of sent and Quartz is a mock (the simulation closes auctions
+ * itself when virtual time reaches their end). Kafka is an embedded broker started by the test.
+ */
+@TestConfiguration
+public class SimulationConfig {
+
+    @Bean
+    public InMemoryRedis inMemoryRedis(ObjectMapper objectMapper) {
+        InMemoryRedis redis = new InMemoryRedis();
+        RedisScript<?> recordScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(BidLeaderboard.class, "RECORD_SCRIPT");
+        redis.registerScript(recordScript.getSha1(), (store, keys, args) -> recordBid(store, keys, args, objectMapper));
+        RedisScript<?> buildScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(BidLeaderboard.class, "BUILD_SCRIPT");
+        redis.registerScript(buildScript.getSha1(), SimulationConfig::buildLeaderboard);
+        RedisScript<?> publishScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(SseBroadcaster.class, "PUBLISH_SCRIPT");
+        redis.registerScript(publishScript.getSha1(), SimulationConfig::publishNumbered);
+        RedisScript<?> unreadScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(UnreadCounter.class, "INCREMENT_IF_CACHED_SCRIPT");
+        redis.registerScript(unreadScript.getSha1(), SimulationConfig::incrementIfCached);
+        RedisScript<?> cacheUnreadScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(UnreadCounter.class, "CACHE_IF_UNCHANGED_SCRIPT");
+        redis.registerScript(cacheUnreadScript.getSha1(), SimulationConfig::cacheIfUnchanged);
+        RedisScript<?> presenceScript =
+                (RedisScript<?>) ReflectionTestUtils.getField(WatcherPresence.class, "REPORT_SCRIPT");
+        redis.registerScript(presenceScript.getSha1(), SimulationConfig::reportPresence);
+        return redis;
+    }
+
+    @Bean
+    @Primary
+    public RedisConnectionFactory simulationRedisConnectionFactory(InMemoryRedis inMemoryRedis) {
+        return new InMemoryRedisConnectionFactory(inMemoryRedis);
+    }
+
+    @Bean
+    @Primary
+    public VirtualClock simulationClock() {
+        return new VirtualClock(Instant.now(), ZoneId.systemDefault());
+    }
+
+    @Bean
+    public Scheduler quartzScheduler() {
+        return Mockito.mock(Scheduler.class);
+    }
+
+    @Bean
+    public CountingMailSender mailSender() {
+        return new CountingMailSender();
+    }
+
+    // No identity provider in the simulation; login flows are not exercised
+    @Bean
+    public ClientRegistrationRepository clientRegistrationRepository() {
+        return new InMemoryClientRegistrationRepository(ClientRegistration.withRegistrationId("keycloak")
+                .clientId("simulation")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .authorizationUri("http://localhost/auth")
+                .tokenUri("http://localhost/token")
+                .build());
+    }
+
+    public static class CountingMailSender extends JavaMailSenderImpl {
+
+        private final AtomicLong sent = new AtomicLong();
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            sent.addAndGet(mimeMessages.length);
+        }
+
+        public long sent() {
+            return sent.get();
+        }
+    }
+
+    // Java version of BidLeaderboard.RECORD_SCRIPT
+    private static Object recordBid(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args, ObjectMapper mapper) {
+        byte[] ranking = keys.get(0);
+        byte[] entries = keys.get(1);
+        if (!redis.exists(keys.get(2))) {
+            return -1L;
+        }
+
+        double score = Double.parseDouble(utf8(args.get(1)));
+        byte[] previous = redis.hGet(entries, args.get(0));
+        if (previous != null) {
+            byte[] member = readMember(previous, mapper);
+            Double current = redis.zScore(ranking, member);
+            if (current != null && current >= score) {
+                return 0L;
+            }
+            redis.zRem(ranking, member);
+        }
+        redis.zAdd(ranking, score, args.get(2));
+        redis.hSet(entries, args.get(0), args.get(3));
+        long ttlMillis = Long.parseLong(utf8(args.get(4))) * 1000;
+        keys.forEach(key -> redis.expire(key, ttlMillis));
+        return 1L;
+    }
+
+    // Java version of BidLeaderboard.BUILD_SCRIPT
+    private static Object buildLeaderboard(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args) {
+        byte[] version = redis.get(keys.get(3));
+        if (redis.exists(keys.get(2)) || !utf8(args.get(0)).equals(version == null ? "0" : utf8(version))) {
+            return 0L;
+        }
+
+        redis.del(keys.get(0), keys.get(1));
+        for (int i = 2; i < args.size(); i += 4) {
+            redis.zAdd(keys.get(0), Double.parseDouble(utf8(args.get(i))), args.get(i + 1));
+            redis.hSet(keys.get(1), args.get(i + 2), args.get(i + 3));
+        }
+        long ttlMillis = Long.parseLong(utf8(args.get(1))) * 1000;
+        redis.set(keys.get(2), bytes("1"), ttlMillis, false, false);
+        keys.subList(0, 3).forEach(key -> redis.expire(key, ttlMillis));
+        return 1L;
+    }
+
+    // Java version of SseBroadcaster.PUBLISH_SCRIPT
+    private static Object publishNumbered(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args) {
+        long id = redis.incrBy(keys.get(0), 1);
+        redis.expire(keys.get(0), Long.parseLong(utf8(args.get(3))) * 1000);
+        String frame = utf8(args.get(1)) + id + '\n' + utf8(args.get(2));
+        redis.publish(args.get(0), frame.getBytes(StandardCharsets.UTF_8));
+        return id;
+    }
+
+    // Java version of UnreadCounter.INCREMENT_IF_CACHED_SCRIPT
+    private static Object incrementIfCached(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args) {
+        redis.incrBy(keys.get(1), 1);
+        redis.expire(keys.get(1), Long.parseLong(utf8(args.get(1))) * 1000);
+        if (!redis.exists(keys.get(0))) {
+            return -1L;
+        }
+        return redis.incrBy(keys.get(0), Long.parseLong(utf8(args.get(0))));
+    }
+
+    // Java version of UnreadCounter.CACHE_IF_UNCHANGED_SCRIPT
+    private static Object cacheIfUnchanged(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args) {
+        byte[] version = redis.get(keys.get(1));
+        if (!utf8(args.get(0)).equals(version == null ? "0" : utf8(version))) {
+            return 0L;
+        }
+        return redis.set(keys.get(0), args.get(1), Long.parseLong(utf8(args.get(2))) * 1000, true, false) ? 1L : 0L;
+    }
+
+    // Java version of WatcherPresence.REPORT_SCRIPT
+    private static Object reportPresence(InMemoryRedis redis, List<byte[]> keys, List<byte[]> args) {
+        byte[] totals = keys.get(0);
+        byte[] nodes = keys.get(1);
+        String prefix = utf8(args.get(0));
+        for (byte[] dead :
+                redis.zRangeByScore(nodes, Double.NEGATIVE_INFINITY, Double.parseDouble(utf8(args.get(3))))) {
+            byte[] contribution = bytes(prefix + utf8(dead));
+            redis.hGetAll(contribution)
+                    .forEach((product, count) -> redis.hIncrBy(totals, product, -Long.parseLong(utf8(count))));
+            redis.del(contribution);
+            redis.zRem(nodes, dead);
+        }
+        if ("0".equals(utf8(args.get(4))) && redis.zScore(nodes, args.get(1)) == null) {
+            return -1L;
+        }
+
+        redis.zAdd(nodes, Double.parseDouble(utf8(args.get(2))), args.get(1));
+        byte[] own = bytes(prefix + utf8(args.get(1)));
+        for (int i = 5; i < args.size(); i += 2) {
+            long delta = Long.parseLong(utf8(args.get(i + 1)));
+            for (byte[] hash : List.of(own, totals)) {
+                if (redis.hIncrBy(hash, args.get(i), delta) <= 0) {
+                    redis.hDel(hash, args.get(i));
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private static byte[] readMember(byte[] entry, ObjectMapper mapper) {
+        try {
+            return mapper.readTree(entry).get("member").asText().getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String utf8(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
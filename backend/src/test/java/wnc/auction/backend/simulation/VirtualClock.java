@@ -0,0 +1,61 @@
+package wnc.auction.backend.simulation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when the simulation advances it, so a whole auction endgame runs in seconds of wall
+ * time. Time never goes backwards.
+ */
+public class VirtualClock extends Clock {
+
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    public VirtualClock(Instant start, ZoneId zone) {
+        this(new AtomicLong(start.toEpochMilli()), zone);
+    }
+
+    private VirtualClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    public void advanceTo(LocalDateTime time) {
+        long target = time.atZone(zone).toInstant().toEpochMilli();
+        millis.accumulateAndGet(target, Math::max);
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(this);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // Shares the same time line
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new VirtualClock(millis, zone);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+}